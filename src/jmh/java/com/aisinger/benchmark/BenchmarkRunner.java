@@ -0,0 +1,78 @@
+package com.aisinger.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 基准测试入口
+ * 参数与 org.openjdk.jmh.Main 相同；指定 -Dbenchmark.baseline=上次的JMH JSON结果 时作为性能回归门禁：
+ * 任一基准比基线差超过 -Dbenchmark.tolerance（默认0.10，即10%）则以非零状态退出
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        Collection<RunResult> results = new Runner(new CommandLineOptions(args)).run();
+        
+        String baselinePath = System.getProperty("benchmark.baseline", "");
+        if (baselinePath.isBlank()) {
+            return;
+        }
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.10"));
+        Map<String, Double> baseline = loadBaseline(new File(baselinePath));
+        
+        List<String> regressions = new ArrayList<>();
+        for (RunResult result : results) {
+            Map<String, String> params = new TreeMap<>();
+            for (String key : result.getParams().getParamsKeys()) {
+                params.put(key, result.getParams().getParam(key));
+            }
+            String key = keyOf(result.getParams().getBenchmark(), params);
+            Double expected = baseline.get(key);
+            if (expected == null || expected == 0) {
+                continue;
+            }
+            double actual = result.getPrimaryResult().getScore();
+            // 吞吐模式越大越好，其余模式（平均/采样/单次耗时）越小越好
+            boolean higherIsBetter = "thrpt".equals(result.getParams().getMode().shortLabel());
+            double change = higherIsBetter ? (expected - actual) / expected : (actual - expected) / expected;
+            String line = String.format("%s: 基线 %.3f，本次 %.3f %s（%+.1f%%）", key, expected, actual,
+                    result.getPrimaryResult().getScoreUnit(), change * 100);
+            System.out.println(line);
+            if (change > tolerance) {
+                regressions.add(line);
+            }
+        }
+        
+        if (!regressions.isEmpty()) {
+            System.err.println("性能回归超过允许范围 " + (int) (tolerance * 100) + "%：");
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+    
+    private static Map<String, Double> loadBaseline(File file) throws Exception {
+        Map<String, Double> baseline = new HashMap<>();
+        for (JsonNode entry : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            entry.path("params").fields().forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            baseline.put(keyOf(entry.path("benchmark").asText(), params),
+                    entry.path("primaryMetric").path("score").asDouble());
+        }
+        return baseline;
+    }
+    
+    private static String keyOf(String benchmark, Map<String, String> params) {
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+}
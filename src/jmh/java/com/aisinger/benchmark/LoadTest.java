@@ -0,0 +1,302 @@
+package com.aisinger.benchmark;
+
+import com.aisinger.AiSingerApplication;
+import com.aisinger.repository.SynthesisProviderConfigRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测工具
+ * 启动本地提供商桩服务器，以桩地址启动应用（内存数据库、随机端口），按权重混合发送
+ * 试听、歌词生成、Jamendo搜索、歌曲创建请求，最后按端点输出吞吐量和 p50/p99 延迟。
+ *
+ * 参数为 key=value 形式，例如：
+ * duration=60 warmup=10 concurrency=16 mix=preview:3,lyrics:2,search:4,song:1
+ * tts=800,0.4,0.01 qwen=1200,0.5,0.02,429 jamendo=150,0.3
+ * 提供商行为格式为 "延迟中位数ms,sigma,错误率[,错误状态码]"，见 {@link StubServer.Behavior#parse(String)}
+ */
+public class LoadTest {
+    
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("duration", "60"),
+            Map.entry("warmup", "10"),
+            Map.entry("concurrency", "16"),
+            Map.entry("mix", "preview:3,lyrics:2,search:4,song:1"),
+            Map.entry("tts", "800,0.4,0.01"),
+            Map.entry("openai", "1500,0.5,0.02"),
+            Map.entry("qwen", "1200,0.5,0.02"),
+            Map.entry("gemini", "1500,0.5,0.02"),
+            Map.entry("jamendo", "150,0.3,0.005"),
+            Map.entry("output", "target/load-test-result.json"));
+    
+    private static final String[] LINES = {
+            "晚风吹过老街的路灯", "你的影子还留在门前", "汽水瓶里装满了星星", "那年夏天说好不说再见",
+            "夏夜的回声轻轻唱", "唱着我们没说完的话", "就算时光走得再远", "你的笑还在心里发芽",
+            "蝉声慢慢落进了黄昏", "旧车站的钟停在七点", "我把名字写在月光里", "等风替我寄到你身边"
+    };
+    private static final String[] THEMES = {"夏夜", "离别", "旅行", "初恋", "城市", "故乡", "梦想", "雨天"};
+    private static final String[] MOODS = {"怀念", "温暖", "忧伤", "激昂", "平静"};
+    private static final String[] STYLES = {"流行", "民谣", "摇滚", "电子", "古风"};
+    private static final String[] KEYWORDS = {"summer", "love", "night", "piano", "chill", "dance", "rain", "road"};
+    
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String appUrl;
+    
+    private LoadTest(String appUrl) {
+        this.appUrl = appUrl;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+            }
+        }
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Map<String, Integer> mix = parseMix(options.get("mix"));
+        
+        StubServer.Behavior tts = StubServer.Behavior.parse(options.get("tts"));
+        StubServer.Behavior openai = StubServer.Behavior.parse(options.get("openai"));
+        StubServer.Behavior qwen = StubServer.Behavior.parse(options.get("qwen"));
+        StubServer.Behavior gemini = StubServer.Behavior.parse(options.get("gemini"));
+        StubServer.Behavior jamendo = StubServer.Behavior.parse(options.get("jamendo"));
+        
+        // 应用侧的对冲、批量等会放大对桩的并发，处理线程按压测并发的4倍预留
+        try (StubServer stubs = StubProviders.start(Math.max(16, concurrency * 4), tts, openai, qwen, gemini, jamendo)) {
+            System.out.println("桩服务器: " + stubs.baseUrl());
+            System.out.println("  TTS: " + tts + "\n  OpenAI: " + openai + "\n  通义千问: " + qwen
+                    + "\n  Gemini: " + gemini + "\n  Jamendo: " + jamendo);
+            
+            try (ConfigurableApplicationContext context = startApp(stubs.baseUrl())) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadTest loadTest = new LoadTest("http://127.0.0.1:" + port);
+                
+                int warmup = Integer.parseInt(options.get("warmup"));
+                if (warmup > 0) {
+                    System.out.println("预热 " + warmup + "s ...");
+                    loadTest.drive(mix, concurrency, warmup);
+                }
+                int duration = Integer.parseInt(options.get("duration"));
+                System.out.println("压测 " + duration + "s，并发 " + concurrency + "，请求配比 " + mix + " ...");
+                Map<String, Recorder> results = loadTest.drive(mix, concurrency, duration);
+                report(results, duration, options.get("output"));
+            }
+        }
+    }
+    
+    /**
+     * 以桩地址启动应用：所有外部提供商指向桩服务器，关闭SQL日志和调试日志以免干扰测量
+     */
+    private static ConfigurableApplicationContext startApp(String stubUrl) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.aisinger", "WARN");
+        properties.put("http-client.http2-enabled", false);
+        properties.put("llm.qwen.api-key", "stub-key");
+        properties.put("llm.qwen.api-url", stubUrl + StubProviders.QWEN_CHAT_PATH);
+        properties.put("llm.openai.api-key", "stub-key");
+        properties.put("llm.openai.api-url", stubUrl + StubProviders.OPENAI_CHAT_PATH);
+        properties.put("llm.gemini.api-key", "stub-key");
+        properties.put("llm.gemini.api-url", stubUrl + StubProviders.GEMINI_PATH);
+        properties.put("jamendo.enabled", true);
+        properties.put("jamendo.client-id", "stub-client");
+        properties.put("jamendo.api-url", stubUrl + StubProviders.JAMENDO_PATH);
+        
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AiSingerApplication.class)
+                .properties(properties)
+                .run();
+        
+        // OpenAI TTS的地址取自合成服务商配置（初始化数据写死为官方地址），启动后改指向桩
+        SynthesisProviderConfigRepository providerConfigs = context.getBean(SynthesisProviderConfigRepository.class);
+        providerConfigs.findByProvider("openai-tts").ifPresent(config -> {
+            config.setApiUrl(stubUrl + StubProviders.TTS_PATH);
+            config.setEnabled(true);
+            providerConfigs.save(config);
+        });
+        return context;
+    }
+    
+    /**
+     * 闭环压测：每个工作线程完成一个请求后立即按权重选择下一个
+     */
+    private Map<String, Recorder> drive(Map<String, Integer> mix, int concurrency, int seconds) throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(name -> recorders.put(name, new Recorder()));
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    String operation = pick(mix, totalWeight);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = execute(operation);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    recorders.get(operation).record(System.nanoTime() - start, ok);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 300L, TimeUnit.SECONDS);
+        return recorders;
+    }
+    
+    private boolean execute(String operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case "preview" -> post("/api/synthesis/preview", Map.of(
+                    "text", LINES[random.nextInt(LINES.length)] + "，" + LINES[random.nextInt(LINES.length)],
+                    "vibratoDepth", 30 + random.nextInt(5) * 10,
+                    "breathiness", 30));
+            case "lyrics" -> post("/api/songs/generate-lyrics", Map.of(
+                    "theme", THEMES[random.nextInt(THEMES.length)],
+                    "mood", MOODS[random.nextInt(MOODS.length)],
+                    "style", STYLES[random.nextInt(STYLES.length)],
+                    "language", "中文"));
+            case "search" -> HttpRequest.newBuilder(URI.create(appUrl + "/api/jamendo/search?limit=20&search="
+                            + URLEncoder.encode(KEYWORDS[random.nextInt(KEYWORDS.length)], StandardCharsets.UTF_8)))
+                    .timeout(Duration.ofSeconds(120))
+                    .GET()
+                    .build();
+            case "song" -> post("/api/songs", Map.of(
+                    "title", "压测歌曲-" + random.nextInt(1_000_000),
+                    "lyrics", String.join("\n", LINES),
+                    "musicStyle", STYLES[random.nextInt(STYLES.length)],
+                    "bpm", 70 + random.nextInt(60),
+                    "singerId", 1));
+            default -> throw new IllegalArgumentException("未知的请求类型: " + operation);
+        };
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        // 接口以 ApiResponse.success=false 表示业务失败（如提供商错误后的降级提示）
+        return response.statusCode() == 200 && !response.body().contains("\"success\":false");
+    }
+    
+    private HttpRequest post(String path, Map<String, ?> body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(appUrl + path))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new ObjectMapper().writeValueAsString(body)))
+                .build();
+    }
+    
+    private static String pick(Map<String, Integer> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+    
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(pair[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("请求配比为空: " + spec);
+        }
+        return mix;
+    }
+    
+    private static void report(Map<String, Recorder> results, int seconds, String output) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-10s %10s %8s %12s %10s %10s %10s%n",
+                "端点", "请求数", "错误数", "吞吐(req/s)", "p50(ms)", "p99(ms)", "最大(ms)");
+        results.forEach((name, recorder) -> {
+            long[] sorted = recorder.sortedLatencies();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", name);
+            row.put("requests", sorted.length);
+            row.put("errors", recorder.errors.get());
+            row.put("throughput", (double) sorted.length / seconds);
+            row.put("p50Ms", percentileMs(sorted, 0.50));
+            row.put("p99Ms", percentileMs(sorted, 0.99));
+            row.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+            rows.add(row);
+            System.out.printf("%-10s %10d %8d %12.1f %10.1f %10.1f %10.1f%n", name, sorted.length,
+                    recorder.errors.get(), row.get("throughput"), row.get("p50Ms"), row.get("p99Ms"), row.get("maxMs"));
+        });
+        
+        File file = new File(output);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, rows);
+        System.out.println("\n结果已写入 " + file.getPath());
+    }
+    
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+    
+    /**
+     * 单个端点的延迟记录（纳秒，数组按需扩容）
+     */
+    private static class Recorder {
+        
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1024];
+        private int size;
+        
+        synchronized void record(long nanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+        
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.aisinger.benchmark;
+
+import com.aisinger.service.JamendoBenchmark;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 外部提供商桩
+ * 在同一个桩服务器上模拟 OpenAI /v1/audio/speech、OpenAI兼容的 chat/completions（OpenAI与通义千问）、
+ * Gemini generateContent 和 Jamendo /tracks/，响应格式与真实API一致
+ */
+public final class StubProviders {
+    
+    public static final String TTS_PATH = "/v1/audio/speech";
+    public static final String OPENAI_CHAT_PATH = "/v1/chat/completions";
+    public static final String QWEN_CHAT_PATH = "/compatible-mode/v1/chat/completions";
+    public static final String GEMINI_PATH = "/v1beta/models";
+    public static final String JAMENDO_PATH = "/v3.0";
+    
+    static final String LYRICS = """
+            【标题】夏夜的回声
+            【风格建议】流行抒情
+            【BPM建议】76
+            
+            【前奏】
+            (钢琴独奏，蝉鸣渐入)
+            
+            【主歌1】
+            晚风吹过老街的路灯
+            你的影子还留在门前
+            汽水瓶里装满了星星
+            那年夏天说好不说再见
+            
+            【副歌】
+            夏夜的回声 轻轻唱
+            唱着我们没说完的话
+            就算时光 走得再远
+            你的笑还在心里发芽
+            
+            【主歌2】
+            蝉声慢慢落进了黄昏
+            旧车站的钟停在七点
+            我把名字写在月光里
+            等风替我寄到你身边
+            
+            【尾声】
+            夏夜的回声
+            慢慢地 散场
+            """;
+    
+    private StubProviders() {
+    }
+    
+    /**
+     * 启动桩服务器并按给定行为注册全部提供商路由
+     */
+    public static StubServer start(int threads, StubServer.Behavior tts, StubServer.Behavior openai,
+                                   StubServer.Behavior qwen, StubServer.Behavior gemini,
+                                   StubServer.Behavior jamendo) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] audio = silentMp3(100);
+        byte[] chat = objectMapper.writeValueAsBytes(Map.of(
+                "id", "chatcmpl-stub",
+                "object", "chat.completion",
+                "choices", List.of(Map.of(
+                        "index", 0,
+                        "message", Map.of("role", "assistant", "content", LYRICS),
+                        "finish_reason", "stop"))));
+        byte[] geminiBody = objectMapper.writeValueAsBytes(Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", LYRICS))),
+                        "finishReason", "STOP"))));
+        byte[] tracks = objectMapper.writeValueAsBytes(JamendoBenchmark.sampleResponse(20));
+        
+        String json = "application/json; charset=utf-8";
+        return StubServer.start(threads)
+                .route(TTS_PATH, tts, "audio/mpeg", () -> audio)
+                .route(OPENAI_CHAT_PATH, openai, json, () -> chat)
+                .route(QWEN_CHAT_PATH, qwen, json, () -> chat)
+                .route(GEMINI_PATH, gemini, json, () -> geminiBody)
+                .route(JAMENDO_PATH + "/tracks/", jamendo, json, () -> tracks);
+    }
+    
+    /**
+     * 生成静音MP3（MPEG1 Layer3，128kbps，44.1kHz，每帧417字节约26ms）
+     */
+    static byte[] silentMp3(int frames) {
+        int frameLength = 417;
+        byte[] data = new byte[frames * frameLength];
+        for (int i = 0; i < frames; i++) {
+            int offset = i * frameLength;
+            data[offset] = (byte) 0xFF;
+            data[offset + 1] = (byte) 0xFB;
+            data[offset + 2] = (byte) 0x90;
+            data[offset + 3] = (byte) 0x64;
+        }
+        return data;
+    }
+}
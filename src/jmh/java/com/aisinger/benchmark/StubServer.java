@@ -0,0 +1,140 @@
+package com.aisinger.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 本地桩服务器
+ * 基于JDK内置HttpServer，按路径前缀返回预设响应，可为每个路由模拟延迟分布和错误率，
+ * 使基准测试和压测不依赖外部服务、结果可离线复现
+ */
+public class StubServer implements AutoCloseable {
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+    
+    /**
+     * 在本机随机端口启动，默认处理线程数为CPU核数（至少4）
+     */
+    public static StubServer start() throws IOException {
+        return start(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    /**
+     * 在本机随机端口启动；模拟延迟会占用处理线程，压测时线程数应不低于预期并发数
+     */
+    public static StubServer start(int threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.start();
+        return new StubServer(server, executor);
+    }
+    
+    /**
+     * 注册固定的JSON响应（无延迟、无错误）
+     */
+    public StubServer json(String pathPrefix, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return route(pathPrefix, Behavior.NONE, "application/json; charset=utf-8", () -> bytes);
+    }
+    
+    /**
+     * 注册路由：先按延迟分布休眠，再按错误率返回错误或正常响应
+     */
+    public StubServer route(String pathPrefix, Behavior behavior, String contentType, Supplier<byte[]> body) {
+        server.createContext(pathPrefix, exchange -> {
+            behavior.sleep();
+            if (behavior.shouldFail()) {
+                respond(exchange, behavior.errorStatus(), "application/json; charset=utf-8",
+                        "{\"error\":{\"message\":\"stub injected error\"}}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            respond(exchange, 200, contentType, body.get());
+        });
+        return this;
+    }
+    
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        // 读完请求体，保证连接可以复用
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+    
+    /**
+     * 路由行为：对数正态延迟（中位数 + 形状参数sigma，sigma越大长尾越重）和错误率
+     *
+     * @param medianMs    延迟中位数（毫秒），0表示不模拟延迟
+     * @param sigma       对数正态分布的形状参数，0表示固定延迟
+     * @param errorRate   返回错误的概率 0-1
+     * @param errorStatus 错误时的HTTP状态码
+     */
+    public record Behavior(long medianMs, double sigma, double errorRate, int errorStatus) {
+        
+        public static final Behavior NONE = new Behavior(0, 0, 0, 500);
+        
+        /**
+         * 解析 "中位数ms,sigma,错误率[,状态码]" 格式，例如 "800,0.5,0.02,429"
+         */
+        public static Behavior parse(String spec) {
+            String[] parts = spec.split(",");
+            return new Behavior(
+                    Long.parseLong(parts[0].trim()),
+                    parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 0,
+                    parts.length > 2 ? Double.parseDouble(parts[2].trim()) : 0,
+                    parts.length > 3 ? Integer.parseInt(parts[3].trim()) : 500);
+        }
+        
+        void sleep() {
+            if (medianMs <= 0) {
+                return;
+            }
+            double factor = sigma > 0 ? Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()) : 1;
+            try {
+                Thread.sleep(Math.round(medianMs * factor));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        boolean shouldFail() {
+            return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+        }
+        
+        @Override
+        public String toString() {
+            return "中位数 " + medianMs + "ms, sigma " + sigma + ", 错误率 " + errorRate + " (" + errorStatus + ")";
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.aisinger.service;
+
+import com.aisinger.benchmark.StubServer;
+import com.aisinger.config.AppMetrics;
+import com.aisinger.config.HttpClientProperties;
+import com.aisinger.config.JamendoProperties;
+import com.aisinger.config.OutboundHttpClients;
+import com.aisinger.dto.JamendoResponse;
+import com.aisinger.dto.JamendoSearchRequest;
+import com.aisinger.dto.JamendoTrackDTO;
+import com.aisinger.entity.JamendoConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jamendo基准
+ * JamendoResponse&lt;JamendoTrackDTO&gt; 的JSON序列化/反序列化，以及 searchTracks 经共享连接池请求本地桩服务器的完整路径
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JamendoBenchmark {
+    
+    private static final TypeReference<JamendoResponse<JamendoTrackDTO>> RESPONSE_TYPE = new TypeReference<>() {};
+    
+    /**
+     * 单次响应的歌曲数（Jamendo单页上限为200）
+     */
+    @Param({"20", "200"})
+    private int tracks;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private JamendoResponse<JamendoTrackDTO> response;
+    private String responseJson;
+    
+    private StubServer stubServer;
+    private OutboundHttpClients outboundHttpClients;
+    private JamendoService jamendoService;
+    private JamendoSearchCache jamendoSearchCache;
+    private JamendoSearchRequest searchRequest;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        response = sampleResponse(tracks);
+        responseJson = objectMapper.writeValueAsString(response);
+        
+        stubServer = StubServer.start().json("/v3.0/tracks/", responseJson);
+        JamendoConfig config = JamendoConfig.builder()
+                .enabled(true)
+                .clientId("benchmark")
+                .apiUrl(stubServer.baseUrl() + "/v3.0")
+                .audioFormat("mp32")
+                .defaultPageSize(tracks)
+                .timeoutSeconds(10)
+                .build();
+        JamendoConfigService configService = new JamendoConfigService(null, new JamendoProperties()) {
+            @Override
+            public JamendoConfig getConfig() {
+                return config;
+            }
+        };
+        
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        // 桩服务器只支持明文HTTP/1.1
+        httpClientProperties.setHttp2Enabled(false);
+        outboundHttpClients = new OutboundHttpClients(httpClientProperties, WebClient.builder());
+        outboundHttpClients.init();
+        
+        // 关闭搜索缓存，测量的是每次真实请求桩服务器并解析的开销
+        JamendoProperties jamendoProperties = new JamendoProperties();
+        jamendoProperties.getCache().setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jamendoSearchCache = new JamendoSearchCache(jamendoProperties, meterRegistry);
+        jamendoSearchCache.init();
+        jamendoService = new JamendoService(jamendoProperties, configService, outboundHttpClients,
+                new AppMetrics(meterRegistry), jamendoSearchCache);
+        searchRequest = JamendoSearchRequest.builder()
+                .search("summer")
+                .tags("pop")
+                .limit(tracks)
+                .build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jamendoSearchCache.shutdown();
+        outboundHttpClients.shutdown();
+        stubServer.close();
+    }
+    
+    @Benchmark
+    public JamendoResponse<JamendoTrackDTO> deserialize() throws IOException {
+        return objectMapper.readValue(responseJson, RESPONSE_TYPE);
+    }
+    
+    @Benchmark
+    public String serialize() throws IOException {
+        return objectMapper.writeValueAsString(response);
+    }
+    
+    @Benchmark
+    public List<JamendoTrackDTO> searchTracksAgainstStub() {
+        return jamendoService.searchTracks(searchRequest);
+    }
+    
+    /**
+     * 构造接近真实API返回的数据（含musicinfo和歌词）
+     */
+    public static JamendoResponse<JamendoTrackDTO> sampleResponse(int count) {
+        List<JamendoTrackDTO> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JamendoTrackDTO.Tags tags = new JamendoTrackDTO.Tags();
+            tags.setGenres(List.of("pop", "electronic"));
+            tags.setInstruments(List.of("piano", "synthesizer", "drums"));
+            tags.setVartags(List.of("summer", "happy", "upbeat"));
+            JamendoTrackDTO.MusicInfo musicInfo = new JamendoTrackDTO.MusicInfo();
+            musicInfo.setTags(tags);
+            musicInfo.setLang("en");
+            musicInfo.setGenre("pop");
+            musicInfo.setSpeed("medium");
+            musicInfo.setVocalInstrumental("vocal");
+            musicInfo.setGender("female");
+            musicInfo.setAcousticelectric("electric");
+            
+            String id = String.valueOf(1_500_000 + i);
+            results.add(JamendoTrackDTO.builder()
+                    .id(id)
+                    .name("Summer Nights " + i)
+                    .duration(180 + i % 120)
+                    .artistId(String.valueOf(300_000 + i % 50))
+                    .artistName("Artist " + i % 50)
+                    .albumId(String.valueOf(400_000 + i % 80))
+                    .albumName("Album " + i % 80)
+                    .licenseCcurl("http://creativecommons.org/licenses/by-nc-sa/3.0/")
+                    .image("https://usercontent.jamendo.com/?type=album&id=" + id + "&width=300")
+                    .audio("https://prod-1.storage.jamendo.com/?trackid=" + id + "&format=mp31")
+                    .audiodownload("https://prod-1.storage.jamendo.com/download/track/" + id + "/mp32/")
+                    .audiodownloadAllowed(true)
+                    .releasedate("2023-07-14")
+                    .shareurl("https://www.jamendo.com/track/" + id)
+                    .shorturl("https://jamen.do/t/" + id)
+                    .waveform("{\"peaks\":[" + "12,40,33,57,81,64,22,".repeat(40) + "0]}")
+                    .position(String.valueOf(i + 1))
+                    .musicinfo(musicInfo)
+                    .lyrics("Under the summer lights we dance tonight\n".repeat(12))
+                    .build());
+        }
+        
+        JamendoResponse.Headers headers = new JamendoResponse.Headers();
+        headers.setStatus("success");
+        headers.setCode(0);
+        headers.setResultsCount(count);
+        return JamendoResponse.<JamendoTrackDTO>builder()
+                .headers(headers)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.aisinger.service;
+
+import com.aisinger.dto.LyricsGenerateRequest;
+import com.aisinger.dto.LyricsGenerateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LLM输出解析基准
+ * 对比当前单遍扫描的 parseLyricsResponse / extractJson 与原正则实现（regex* 方法，作为基线保留在此）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LyricsParseBenchmark {
+    
+    /**
+     * 主歌重复次数：1 为常见长度的歌词，8 为超长输出
+     */
+    @Param({"1", "8"})
+    private int verses;
+    
+    private String lyricsOutput;
+    private String singerOutput;
+    private LyricsGenerateRequest request;
+    
+    @Setup
+    public void setup() {
+        request = LyricsGenerateRequest.builder()
+                .theme("夏夜")
+                .mood("怀念")
+                .style("流行")
+                .language("中文")
+                .build();
+        lyricsOutput = lyricsOutput(verses);
+        singerOutput = "好的，根据您的需求，我为您设计了以下歌手配置：\n\n```json\n"
+                + "{\n  \"name\": \"林晚\",\n  \"nameEn\": \"Lin Wan\",\n"
+                + "  \"description\": \"温柔细腻的抒情女声，擅长讲述夏夜与回忆\",\n"
+                + "  \"voiceType\": \"女声\",\n  \"voiceStyle\": \"抒情\",\n"
+                + "  \"voiceCharacter\": \"温暖,柔和,细腻\",\n  \"suitableGenres\": \"流行,民谣,抒情\",\n"
+                + "  \"vocalRangeLow\": \"G3\",\n  \"vocalRangeHigh\": \"D5\",\n"
+                + "  \"defaultVibratoDepth\": 45,\n  \"defaultBreathiness\": 40,\n"
+                + "  \"tags\": \"治愈,夏日,回忆\",\n  \"designNotes\": \"气声比例略高以贴合怀旧氛围\"\n}\n```\n\n"
+                + "希望这个配置符合您的期望！如需调整请告诉我。";
+    }
+    
+    @Benchmark
+    public LyricsGenerateResponse parseLyrics() {
+        return LlmService.parseLyricsResponse(lyricsOutput, request);
+    }
+    
+    @Benchmark
+    public LyricsGenerateResponse parseLyricsRegexBaseline() {
+        return regexParseLyrics(lyricsOutput, request);
+    }
+    
+    @Benchmark
+    public String extractJson() {
+        return LlmService.extractJson(singerOutput);
+    }
+    
+    @Benchmark
+    public String extractJsonRegexBaseline() {
+        return regexExtractJson(singerOutput);
+    }
+    
+    /**
+     * 模拟LLM按提示词格式返回的歌词
+     */
+    static String lyricsOutput(int verses) {
+        StringBuilder text = new StringBuilder("好的，以下是为您创作的歌词：\n\n");
+        text.append("【标题】夏夜的回声\n");
+        text.append("【风格建议】流行抒情，钢琴与弦乐铺底\n");
+        text.append("【BPM建议】76\n\n");
+        text.append("【前奏】\n(钢琴独奏，蝉鸣渐入)\n\n");
+        for (int i = 1; i <= verses; i++) {
+            text.append("【主歌").append(Math.min(i, 3)).append("】\n");
+            text.append("晚风吹过老街的路灯\n你的影子还留在门前\n");
+            text.append("汽水瓶里装满了星星\n那年夏天说好不说再见\n\n");
+            text.append("【副歌】\n夏夜的回声 轻轻唱\n唱着我们没说完的话\n");
+            text.append("就算时光 走得再远\n你的笑还在心里发芽\n\n");
+        }
+        text.append("【桥段】\n如果能回到那一天\n我会牵紧你的手不放\n\n");
+        text.append("【尾声】\n夏夜的回声\n慢慢地 散场\n");
+        return text.toString();
+    }
+    
+    private static LyricsGenerateResponse regexParseLyrics(String response, LyricsGenerateRequest request) {
+        List<LyricsGenerateResponse.LyricsSection> sections = new ArrayList<>();
+        String title = "未命名歌曲";
+        String suggestedStyle = request.getStyle();
+        Integer suggestedBpm = 120;
+        StringBuilder fullLyrics = new StringBuilder();
+        
+        Matcher titleMatcher = Pattern.compile("【标题】(.+?)(?=\\n|$)").matcher(response);
+        if (titleMatcher.find()) {
+            title = titleMatcher.group(1).trim();
+        }
+        Matcher bpmMatcher = Pattern.compile("【BPM建议】(\\d+)").matcher(response);
+        if (bpmMatcher.find()) {
+            suggestedBpm = Integer.parseInt(bpmMatcher.group(1));
+        }
+        Matcher styleMatcher = Pattern.compile("【风格建议】(.+?)(?=\\n|$)").matcher(response);
+        if (styleMatcher.find()) {
+            suggestedStyle = styleMatcher.group(1).trim();
+        }
+        
+        String[] sectionTypes = {"前奏", "主歌1", "主歌2", "主歌3", "副歌", "桥段", "尾声"};
+        String[] sectionTypeEn = {"intro", "verse", "verse", "verse", "chorus", "bridge", "outro"};
+        String[] suggestedEmotions = {"期待", "叙述", "深情", "激昂", "高潮", "转折", "回味"};
+        String[] suggestedTechniques = {"轻声", "自然", "颤音", "假声", "混声", "转音", "气声"};
+        for (int i = 0; i < sectionTypes.length; i++) {
+            Matcher sectionMatcher = Pattern.compile("【" + sectionTypes[i] + "】([\\s\\S]*?)(?=【|$)").matcher(response);
+            if (sectionMatcher.find()) {
+                String content = sectionMatcher.group(1).trim();
+                if (!content.isEmpty()) {
+                    sections.add(LyricsGenerateResponse.LyricsSection.builder()
+                            .type(sectionTypeEn[i])
+                            .content(content)
+                            .suggestedEmotion(suggestedEmotions[i])
+                            .suggestedTechnique(suggestedTechniques[i])
+                            .build());
+                    fullLyrics.append(content).append("\n\n");
+                }
+            }
+        }
+        
+        return LyricsGenerateResponse.builder()
+                .title(title)
+                .fullLyrics(fullLyrics.toString().trim())
+                .sections(sections)
+                .suggestedStyle(suggestedStyle)
+                .suggestedBpm(suggestedBpm)
+                .build();
+    }
+    
+    private static String regexExtractJson(String response) {
+        Matcher matcher = Pattern.compile("```json\\s*([\\s\\S]*?)```").matcher(response);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+        matcher = Pattern.compile("```\\s*([\\s\\S]*?)```").matcher(response);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+        matcher = Pattern.compile("\\{[\\s\\S]*\\}").matcher(response);
+        if (matcher.find()) {
+            return matcher.group(0);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.AdmissionProperties;
+import com.aisinger.config.AppMetrics;
+import com.aisinger.config.SynthesisProperties;
+import com.aisinger.service.ProviderAdmission;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import com.aisinger.synthesis.dto.SynthesisResult;
+import com.aisinger.synthesis.engine.MockSynthesisEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mock引擎端到端合成基准
+ * 经由 SynthesisService 完整路径（参数解析、准入、缓存、指标），Mock引擎延迟设为0，
+ * 测量的是服务本身的开销；cache=true 时重复请求全部命中内存缓存
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MockSynthesisBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean cache;
+    
+    private SynthesisService synthesisService;
+    private Path cacheDir;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        cacheDir = Files.createTempDirectory("synthesis-bench");
+        SynthesisProperties synthesisProperties = new SynthesisProperties();
+        synthesisProperties.getMock().setDelayMs(0);
+        synthesisProperties.getCache().setEnabled(cache);
+        synthesisProperties.getCache().setDirectory(cacheDir.toString());
+        
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<SynthesisEngine> engines = List.of(new MockSynthesisEngine(synthesisProperties));
+        SynthesisCatalog catalog = new SynthesisCatalog(SynthesisParamsBenchmark.catalogProperties(100), engines);
+        catalog.init();
+        SynthesisCache synthesisCache = new SynthesisCache(synthesisProperties, new ObjectMapper(), meterRegistry);
+        synthesisCache.init();
+        // 引擎上限取自数据库配置，基准中关闭准入以免依赖仓库
+        AdmissionProperties admissionProperties = new AdmissionProperties();
+        admissionProperties.setEnabled(false);
+        
+        synthesisService = new SynthesisService(synthesisProperties, engines, catalog, synthesisCache,
+                new LyricsChunker(synthesisProperties), new AudioStitcher(),
+                new ProviderAdmission(admissionProperties, null, meterRegistry),
+                new AppMetrics(meterRegistry));
+        synthesisService.init();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        synthesisService.shutdown();
+        try (var files = Files.walk(cacheDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public SynthesisResult synthesize() {
+        SynthesisRequest request = SynthesisRequest.builder()
+                .lyrics("晚风吹过老街的路灯\n你的影子还留在门前\n汽水瓶里装满了星星\n那年夏天说好不说再见")
+                .voiceId("voice-42")
+                .techniqueId("technique-7")
+                .emotionId("emotion-3")
+                .duration(30.0)
+                .build();
+        return synthesisService.synthesizeWithEngine("mock", request);
+    }
+}
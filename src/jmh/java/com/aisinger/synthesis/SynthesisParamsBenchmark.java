@@ -0,0 +1,137 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.AiSingerProperties;
+import com.aisinger.config.SynthesisProperties;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import com.aisinger.synthesis.engine.MockSynthesisEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合成参数解析基准
+ * 在大规模歌手/技巧/情绪目录下测量 SynthesisCatalog.applyParams：
+ * 组合模板路径（音色参数为默认值）与逐项解析路径（请求自带音色参数）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SynthesisParamsBenchmark {
+    
+    /**
+     * 目录中歌手、技巧、情绪各自的条目数
+     */
+    @Param({"10", "1000"})
+    private int catalogSize;
+    
+    private SynthesisCatalog catalog;
+    private String voiceId;
+    private String techniqueId;
+    private String emotionId;
+    
+    @Setup
+    public void setup() {
+        SynthesisProperties synthesisProperties = new SynthesisProperties();
+        catalog = new SynthesisCatalog(catalogProperties(catalogSize),
+                List.of(new MockSynthesisEngine(synthesisProperties)));
+        catalog.init();
+        // 取目录末尾的条目，避免只命中最先插入的键
+        voiceId = "voice-" + (catalogSize - 1);
+        techniqueId = "technique-" + (catalogSize - 1);
+        emotionId = "emotion-" + (catalogSize - 1);
+    }
+    
+    @Benchmark
+    public SynthesisRequest templatePath() {
+        SynthesisRequest request = SynthesisRequest.builder()
+                .lyrics("晚风吹过老街的路灯")
+                .voiceId(voiceId)
+                .emotionId(emotionId)
+                .build();
+        catalog.applyParams(request);
+        return request;
+    }
+    
+    @Benchmark
+    public SynthesisRequest templatePathWithTechnique() {
+        SynthesisRequest request = SynthesisRequest.builder()
+                .lyrics("晚风吹过老街的路灯")
+                .voiceId(voiceId)
+                .techniqueId(techniqueId)
+                .emotionId(emotionId)
+                .vibratoDepth(80)
+                .build();
+        catalog.applyParams(request);
+        return request;
+    }
+    
+    @Benchmark
+    public SynthesisRequest perFieldPath() {
+        SynthesisRequest request = SynthesisRequest.builder()
+                .lyrics("晚风吹过老街的路灯")
+                .voiceId(voiceId)
+                .emotionId(emotionId)
+                .vibratoDepth(80)
+                .breathiness(45)
+                .build();
+        catalog.applyParams(request);
+        return request;
+    }
+    
+    /**
+     * 生成指定规模的歌手、技巧、情绪配置
+     */
+    static AiSingerProperties catalogProperties(int size) {
+        AiSingerProperties properties = new AiSingerProperties();
+        for (int i = 0; i < size; i++) {
+            AiSingerProperties.VoiceConfig voice = new AiSingerProperties.VoiceConfig();
+            voice.setId("voice-" + i);
+            voice.setName("歌手" + i);
+            AiSingerProperties.ModelConfig model = new AiSingerProperties.ModelConfig();
+            model.setEngine("mock");
+            model.setPath("models/voice-" + i + ".pth");
+            model.setSpeakerId(i % 8);
+            voice.setModel(model);
+            AiSingerProperties.DefaultParams defaults = new AiSingerProperties.DefaultParams();
+            defaults.setVibratoDepth(40 + i % 30);
+            defaults.setBreathiness(20 + i % 40);
+            voice.setDefaults(defaults);
+            voice.setEnabled(i % 10 != 0);
+            properties.getVoices().add(voice);
+            
+            AiSingerProperties.TechniqueConfig technique = new AiSingerProperties.TechniqueConfig();
+            technique.setId("technique-" + i);
+            technique.setName("技巧" + i);
+            AiSingerProperties.TechniqueSynthesisParams techniqueParams = new AiSingerProperties.TechniqueSynthesisParams();
+            techniqueParams.setVibratoDepth(60 + i % 40);
+            techniqueParams.setPhonationType(i % 2 == 0 ? "breathy" : "falsetto");
+            technique.setSynthesisParams(techniqueParams);
+            properties.getTechniques().add(technique);
+            
+            AiSingerProperties.EmotionConfig emotion = new AiSingerProperties.EmotionConfig();
+            emotion.setId("emotion-" + i);
+            emotion.setName("情绪" + i);
+            AiSingerProperties.EmotionSynthesisParams emotionParams = new AiSingerProperties.EmotionSynthesisParams();
+            emotionParams.setIntensity(30 + i % 70);
+            emotionParams.setVibratoDepthModifier(1.0 + (i % 5) / 10.0);
+            emotionParams.setTensionModifier(0.9);
+            emotion.setSynthesisParams(emotionParams);
+            properties.getEmotions().add(emotion);
+        }
+        return properties;
+    }
+}
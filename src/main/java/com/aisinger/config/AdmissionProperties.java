@@ -0,0 +1,55 @@
+package com.aisinger.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 提供商准入控制配置属性
+ * 合成引擎的速率和并发上限取自数据库中的 SynthesisProviderConfig（rateLimit / maxConcurrent），
+ * LLM提供商没有对应的数据库字段，在此按提供商配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+    
+    /**
+     * 是否启用准入控制
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 排队等待许可的最长时间（毫秒），超时后拒绝
+     */
+    private long queueTimeoutMs = 15000;
+    
+    /**
+     * 每个提供商最多排队的请求数，队列已满时立即拒绝
+     */
+    private int maxQueue = 50;
+    
+    /**
+     * 令牌桶容量对应的秒数：允许的突发请求数 = 每分钟速率 * burstSeconds / 60
+     */
+    private int burstSeconds = 10;
+    
+    /**
+     * 从数据库重新读取提供商上限的间隔（秒）
+     */
+    private int refreshSeconds = 30;
+    
+    /**
+     * LLM提供商的上限（键为提供商：qwen、openai、gemini）
+     */
+    private Map<String, Limit> llm = new HashMap<>();
+    
+    @Data
+    public static class Limit {
+        private int rateLimit = 0;      // 每分钟请求数，0表示不限
+        private int maxConcurrent = 0;  // 最大并发数，0表示不限
+    }
+}
@@ -0,0 +1,113 @@
+package com.aisinger.config;
+
+import com.aisinger.service.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 业务指标记录
+ * 合成引擎、LLM提供商、Jamendo调用的耗时直方图、产出音频字节数和按原因分类的错误数，
+ * 通过Actuator的 /actuator/prometheus 端点暴露；缓存、队列等状态类指标由各组件自行注册为Gauge
+ */
+@Component
+@RequiredArgsConstructor
+public class AppMetrics {
+    
+    public static final String SYNTHESIS_LATENCY = "aisinger.synthesis.latency";
+    public static final String SYNTHESIS_AUDIO_BYTES = "aisinger.synthesis.audio.bytes";
+    public static final String LLM_LATENCY = "aisinger.llm.latency";
+    public static final String JAMENDO_LATENCY = "aisinger.jamendo.latency";
+    public static final String ERRORS = "aisinger.errors";
+    
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_REJECTED = "rejected";
+    
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * 记录一次引擎合成（不含缓存命中）
+     */
+    public void recordSynthesis(String engine, long elapsedNanos, String outcome, long audioBytes) {
+        timer(SYNTHESIS_LATENCY, "engine", engine, outcome).record(Duration.ofNanos(elapsedNanos));
+        if (audioBytes > 0) {
+            Counter.builder(SYNTHESIS_AUDIO_BYTES)
+                    .description("合成产出的音频字节数")
+                    .baseUnit("bytes")
+                    .tag("engine", engine)
+                    .register(meterRegistry)
+                    .increment(audioBytes);
+        }
+    }
+    
+    /**
+     * 记录一次LLM提供商调用（不含排队等待准入的时间）
+     */
+    public void recordLlm(String provider, long elapsedNanos, String outcome) {
+        timer(LLM_LATENCY, "provider", normalize(provider), outcome).record(Duration.ofNanos(elapsedNanos));
+    }
+    
+    /**
+     * 记录一次Jamendo API调用
+     */
+    public void recordJamendo(String operation, long elapsedNanos, String outcome) {
+        timer(JAMENDO_LATENCY, "operation", operation, outcome).record(Duration.ofNanos(elapsedNanos));
+    }
+    
+    /**
+     * 按组件、来源和原因累计错误数
+     *
+     * @param component synthesis / llm / jamendo
+     * @param source    引擎名或提供商标识
+     * @param cause     错误原因，见 {@link #causeOf(Throwable)}
+     */
+    public void recordError(String component, String source, String cause) {
+        Counter.builder(ERRORS)
+                .description("按原因分类的错误数")
+                .tag("component", component)
+                .tag("source", normalize(source))
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    /**
+     * 将异常归类为有限的原因标签，避免异常消息导致标签基数膨胀
+     */
+    public static String causeOf(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            if (root instanceof AdmissionRejectedException || root instanceof TimeoutException) {
+                break;
+            }
+            root = root.getCause();
+        }
+        if (root instanceof AdmissionRejectedException) {
+            return OUTCOME_REJECTED;
+        }
+        if (root instanceof TimeoutException) {
+            return "timeout";
+        }
+        return root.getClass().getSimpleName();
+    }
+    
+    private Timer timer(String name, String sourceTag, String source, String outcome) {
+        return Timer.builder(name)
+                .tag(sourceTag, source)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+    
+    private static String normalize(String source) {
+        return source != null ? source.toLowerCase() : "unknown";
+    }
+}
@@ -0,0 +1,55 @@
+package com.aisinger.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 出站HTTP客户端配置属性
+ * LLM、TTS、Jamendo等外部调用共用同一个连接池
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-client")
+public class HttpClientProperties {
+    
+    /**
+     * 每个目标主机的最大连接数
+     */
+    private int maxConnectionsPerHost = 50;
+    
+    /**
+     * 等待空闲连接的超时时间（毫秒）
+     */
+    private long pendingAcquireTimeoutMs = 10000;
+    
+    /**
+     * 空闲连接保留时间（秒），超过后关闭
+     */
+    private int maxIdleSeconds = 60;
+    
+    /**
+     * 连接最长存活时间（秒），防止长期持有过期的DNS解析结果
+     */
+    private int maxLifeSeconds = 600;
+    
+    /**
+     * 默认连接超时（毫秒），提供商未配置超时时使用
+     */
+    private int connectTimeoutMs = 5000;
+    
+    /**
+     * 默认响应超时（秒），提供商未配置超时时使用
+     */
+    private int defaultTimeoutSeconds = 60;
+    
+    /**
+     * 是否优先使用HTTP/2（通过ALPN协商，不支持时回退到HTTP/1.1）
+     */
+    private boolean http2Enabled = true;
+    
+    /**
+     * 单个响应体在内存中的最大字节数
+     */
+    private int maxInMemorySizeKb = 2048;
+}
@@ -46,4 +46,17 @@ public class JamendoProperties {
      * 是否只显示可商用歌曲
      */
     private boolean commercialOnly = false;
+    
+    /**
+     * 搜索结果缓存配置
+     */
+    private CacheConfig cache = new CacheConfig();
+    
+    @Data
+    public static class CacheConfig {
+        private boolean enabled = true;
+        private int maxEntries = 500;       // 内存中最多缓存的查询数
+        private int ttlSeconds = 300;       // 结果新鲜期，期内直接返回
+        private int staleSeconds = 1800;    // 过期后仍可返回旧结果的时长，同时在后台刷新
+    }
 }
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * LLM配置属性类
  */
@@ -32,6 +35,26 @@ public class LlmProperties {
      */
     private ProviderConfig gemini = new ProviderConfig();
     
+    /**
+     * LLM响应缓存配置
+     */
+    private CacheConfig cache = new CacheConfig();
+    
+    /**
+     * 对冲请求配置
+     */
+    private HedgeConfig hedge = new HedgeConfig();
+    
+    /**
+     * 熔断配置
+     */
+    private BreakerConfig breaker = new BreakerConfig();
+    
+    /**
+     * 批量生成配置
+     */
+    private BatchConfig batch = new BatchConfig();
+    
     @Data
     public static class ProviderConfig {
         private String apiKey;
@@ -39,6 +62,44 @@ public class LlmProperties {
         private String model;
     }
     
+    @Data
+    public static class CacheConfig {
+        private boolean enabled = true;
+        private int maxEntries = 200;       // 内存中最多缓存的响应数
+        private int ttlSeconds = 1800;      // 响应缓存有效期
+        private boolean reuseByDefault = false; // 请求未指定reuse时是否复用缓存响应
+    }
+    
+    @Data
+    public static class HedgeConfig {
+        private boolean enabled = true;
+        private double percentile = 95;     // 主提供商超过其历史延迟的该百分位仍未返回时发起对冲
+        private int minSamples = 20;        // 样本数不足时不发起对冲，只调用主提供商
+        private long minDelayMs = 1000;     // 对冲等待时间下限，避免快速提供商被频繁对冲
+        private int windowSize = 200;       // 每个提供商保留的最近延迟样本数
+    }
+    
+    @Data
+    public static class BreakerConfig {
+        private boolean enabled = true;
+        private int windowSize = 20;                // 滚动窗口内统计的最近调用数
+        private int minimumCalls = 5;               // 窗口内至少这么多次调用才计算失败率
+        private double failureRateThreshold = 50;   // 失败率（%）达到该值时熔断
+        private long slowCallMs = 0;                // 超过该耗时的成功调用记为慢调用，0表示按提供商超时时间推算
+        private double slowCallTimeoutRatio = 0.8;  // 未指定slowCallMs时，耗时达到提供商超时时间的该比例记为慢调用
+        private double slowCallRateThreshold = 80;  // 慢调用率（%）达到该值时熔断
+        private int openSeconds = 30;               // 熔断持续时间，之后进入半开状态
+        private int halfOpenCalls = 2;              // 半开状态允许的探测调用数，全部成功后恢复
+    }
+    
+    @Data
+    public static class BatchConfig {
+        private int maxItems = 50;          // 单个批次最多条目数
+        private int concurrency = 3;        // 默认并发数
+        private int requestsPerMinute = 60; // 批次内发起请求的速率上限
+        private Map<String, Integer> providerConcurrency = new HashMap<>(); // 按提供商覆盖并发数
+    }
+    
     /**
      * 获取当前启用的提供商配置
      */
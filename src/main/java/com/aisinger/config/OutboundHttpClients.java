@@ -0,0 +1,158 @@
+package com.aisinger.config;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 出站HTTP客户端
+ * 所有外部调用（LLM、TTS、Jamendo）共用一个按目标主机划分的连接池（keep-alive，优先HTTP/2），
+ * 按提供商和超时时间缓存客户端实例，避免每次调用重新建连和TLS握手
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboundHttpClients {
+    
+    private final HttpClientProperties properties;
+    private final WebClient.Builder webClientBuilder;
+    
+    private final Map<String, Clients> clients = new ConcurrentHashMap<>();
+    private final Map<String, PoolEntry> pools = new ConcurrentHashMap<>();
+    
+    private ConnectionProvider connectionProvider;
+    
+    @PostConstruct
+    public void init() {
+        connectionProvider = ConnectionProvider.builder("outbound")
+                .maxConnections(properties.getMaxConnectionsPerHost())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(properties.getMaxIdleSeconds()))
+                .maxLifeTime(Duration.ofSeconds(properties.getMaxLifeSeconds()))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true, PoolRegistrar::new)
+                .build();
+        log.info("出站HTTP连接池已初始化: 每主机最大连接数 {}, HTTP/2: {}",
+                properties.getMaxConnectionsPerHost(), properties.isHttp2Enabled());
+    }
+    
+    /**
+     * 获取指定提供商的WebClient
+     *
+     * @param provider       提供商标识（仅用于区分客户端实例和日志）
+     * @param timeoutSeconds 提供商配置的超时时间，为空时使用默认值
+     */
+    public WebClient webClient(String provider, Integer timeoutSeconds) {
+        return clientsFor(provider, timeoutSeconds).webClient();
+    }
+    
+    /**
+     * 获取指定提供商的RestTemplate（适用于需要阻塞读取响应流的场景）
+     */
+    public RestTemplate restTemplate(String provider, Integer timeoutSeconds) {
+        return clientsFor(provider, timeoutSeconds).restTemplate();
+    }
+    
+    /**
+     * 连接池统计：按目标主机列出已用、空闲、等待获取的连接数
+     */
+    public Map<String, Object> getPoolStats() {
+        List<Map<String, Object>> hosts = new ArrayList<>();
+        pools.forEach((id, entry) -> {
+            ConnectionPoolMetrics metrics = entry.metrics();
+            Map<String, Object> info = new HashMap<>();
+            info.put("remoteAddress", String.valueOf(entry.remoteAddress()));
+            info.put("acquired", metrics.acquiredSize());
+            info.put("idle", metrics.idleSize());
+            info.put("allocated", metrics.allocatedSize());
+            info.put("pendingAcquire", metrics.pendingAcquireSize());
+            info.put("maxAllocated", metrics.maxAllocatedSize());
+            hosts.add(info);
+        });
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("clients", clients.keySet());
+        stats.put("pools", hosts);
+        return stats;
+    }
+    
+    private Clients clientsFor(String provider, Integer timeoutSeconds) {
+        int timeout = timeoutSeconds != null && timeoutSeconds > 0 ? timeoutSeconds : properties.getDefaultTimeoutSeconds();
+        return clients.computeIfAbsent(provider + "|" + timeout, key -> createClients(provider, timeout));
+    }
+    
+    private Clients createClients(String provider, int timeoutSeconds) {
+        Duration timeout = Duration.ofSeconds(timeoutSeconds);
+        int connectTimeoutMs = (int) Math.min(properties.getConnectTimeoutMs(), timeout.toMillis());
+        
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(timeout)
+                .compress(true);
+        if (properties.isHttp2Enabled()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        
+        WebClient webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getMaxInMemorySizeKb() * 1024))
+                .build();
+        
+        ReactorNettyClientRequestFactory requestFactory = new ReactorNettyClientRequestFactory(httpClient);
+        requestFactory.setExchangeTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        
+        log.info("创建出站HTTP客户端: {}，超时 {}s，连接超时 {}ms", provider, timeoutSeconds, connectTimeoutMs);
+        return new Clients(webClient, restTemplate);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+    
+    private record Clients(WebClient webClient, RestTemplate restTemplate) {
+    }
+    
+    private record PoolEntry(SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+    }
+    
+    /**
+     * 连接池创建/销毁时登记其指标，供统计接口读取
+     */
+    private class PoolRegistrar implements ConnectionProvider.MeterRegistrar {
+        
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            pools.put(id, new PoolEntry(remoteAddress, metrics));
+        }
+        
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            pools.remove(id);
+        }
+    }
+}
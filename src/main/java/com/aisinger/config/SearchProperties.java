@@ -0,0 +1,39 @@
+package com.aisinger.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 全文搜索配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    
+    /**
+     * 是否启用全文索引；关闭时搜索退回数据库模糊查询
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 索引目录，为空时使用内存索引（与内存数据库配合，启动时重建）
+     */
+    private String directory = "";
+    
+    /**
+     * 启动完成后是否从数据库重建索引
+     */
+    private boolean rebuildOnStartup = true;
+    
+    /**
+     * 磁盘索引的提交间隔（秒），两次提交之间的更新已可搜索，只是尚未落盘
+     */
+    private int commitIntervalSeconds = 30;
+    
+    /**
+     * 单次搜索最多可翻到的结果数（页码 * 每页条数的上限）
+     */
+    private int maxResults = 1000;
+}
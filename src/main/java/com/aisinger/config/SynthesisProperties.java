@@ -37,6 +37,26 @@ public class SynthesisProperties {
      */
     private MockConfig mock = new MockConfig();
     
+    /**
+     * 异步合成任务配置
+     */
+    private JobConfig jobs = new JobConfig();
+    
+    /**
+     * 合成结果缓存配置
+     */
+    private CacheConfig cache = new CacheConfig();
+    
+    /**
+     * 长歌词分段并行合成配置
+     */
+    private ChunkingConfig chunking = new ChunkingConfig();
+    
+    /**
+     * 整首歌曲按片段渲染配置
+     */
+    private RenderConfig render = new RenderConfig();
+    
     // ==================== So-VITS-SVC ====================
     
     @Data
@@ -77,4 +97,42 @@ public class SynthesisProperties {
         private boolean enabled = true;
         private int delayMs = 1000;
     }
+    
+    // ==================== 异步任务 ====================
+    
+    @Data
+    public static class JobConfig {
+        private int queueCapacity = 100;        // 每个引擎的等待队列长度
+        private int defaultConcurrency = 2;     // 未配置提供商时的默认并发数
+        private int retentionMinutes = 30;      // 已完成任务的保留时间
+    }
+    
+    // ==================== 结果缓存 ====================
+    
+    @Data
+    public static class CacheConfig {
+        private boolean enabled = true;
+        private int memoryEntries = 256;                // 内存LRU条目上限
+        private String directory = "target/audio/cache"; // 磁盘缓存目录
+        private String urlPrefix = "/audio/cache";      // 磁盘缓存对应的访问URL前缀
+        private long diskMaxMb = 512;                   // 磁盘缓存容量上限(MB)
+    }
+    
+    // ==================== 分段合成 ====================
+    
+    @Data
+    public static class ChunkingConfig {
+        private boolean enabled = true;
+        private int maxChunkChars = 300;    // 单段最大字数，超过则按段落/句子切分
+        private int parallelism = 4;        // 分段并行合成的最大并发数
+    }
+    
+    // ==================== 歌曲渲染 ====================
+    
+    @Data
+    public static class RenderConfig {
+        private int parallelism = 4;                    // 片段并行合成的最大并发数
+        private String outputDir = "target/audio/songs"; // 渲染结果输出目录
+        private String urlPrefix = "/audio/songs";      // 输出目录对应的访问URL前缀
+    }
 }
@@ -0,0 +1,29 @@
+package com.aisinger.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 使用计数配置属性（演唱配置/模板使用次数、歌手热度）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "usage")
+public class UsageProperties {
+    
+    /**
+     * 是否在内存中累加后定期写库；关闭时每次使用直接执行一条自增UPDATE
+     */
+    private boolean enabled = true;
+    
+    /**
+     * 增量写库间隔（秒），同时刷新热门排行
+     */
+    private int flushIntervalSeconds = 5;
+    
+    /**
+     * 热门排行保留的条数
+     */
+    private int topK = 10;
+}
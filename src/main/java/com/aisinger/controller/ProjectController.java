@@ -1,13 +1,18 @@
 package com.aisinger.controller;
 
 import com.aisinger.dto.ApiResponse;
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.ProjectSummary;
 import com.aisinger.entity.Project;
 import com.aisinger.repository.ProjectRepository;
 import com.aisinger.repository.SingerRepository;
 import com.aisinger.repository.SongRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +34,33 @@ public class ProjectController {
         return ApiResponse.success(projectRepository.findAllByOrderByUpdatedAtDesc());
     }
     
+    /**
+     * 项目列表（摘要 + 游标分页，最近更新在前）
+     *
+     * @param cursor 上一页返回的游标（"更新时间,ID"），为空时从第一页开始
+     */
+    @GetMapping("/page")
+    public ApiResponse<CursorPage<ProjectSummary>> getProjectPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        LocalDateTime updatedAt = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = CursorPage.split(cursor.trim());
+                updatedAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                return ApiResponse.error(CursorPage.invalid(cursor).getMessage());
+            }
+        }
+        List<ProjectSummary> rows = projectRepository.findSummariesBefore(
+                updatedAt, beforeId, PageRequest.of(0, pageSize + 1));
+        return ApiResponse.success(CursorPage.of(rows, pageSize,
+                project -> CursorPage.cursor(project.getUpdatedAt(), project.getId())));
+    }
+    
     @GetMapping("/{id}")
     public ApiResponse<Project> getProjectById(@PathVariable Long id) {
         return projectRepository.findById(id)
@@ -0,0 +1,51 @@
+package com.aisinger.controller;
+
+import com.aisinger.dto.ApiResponse;
+import com.aisinger.dto.SearchResult;
+import com.aisinger.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 全文搜索控制器
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SearchController {
+    
+    private final SearchIndexService searchIndexService;
+    
+    /**
+     * 搜索歌曲、歌手和模板（按相关度排序）
+     * 按分词匹配而不是子串匹配，单个字或半个词可能搜不到；标题子串匹配用 /api/songs/search。
+     * 分页浏览，最多可翻到 search.max-results 条结果
+     *
+     * @param type 限定类型：song、singer、template，不传则搜索全部
+     */
+    @GetMapping
+    public ApiResponse<SearchResult> search(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (!searchIndexService.isEnabled()) {
+            return ApiResponse.error("全文索引未启用");
+        }
+        return ApiResponse.success(searchIndexService.search(keyword, type, page, size));
+    }
+    
+    /**
+     * 从数据库重建索引
+     */
+    @PostMapping("/rebuild")
+    public ApiResponse<Map<String, Object>> rebuild() {
+        if (!searchIndexService.isEnabled()) {
+            return ApiResponse.error("全文索引未启用");
+        }
+        return ApiResponse.success("索引重建完成", Map.of("documents", searchIndexService.rebuild()));
+    }
+}
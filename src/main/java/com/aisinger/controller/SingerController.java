@@ -1,13 +1,17 @@
 package com.aisinger.controller;
 
 import com.aisinger.dto.ApiResponse;
+import com.aisinger.dto.CursorPage;
 import com.aisinger.dto.SingerGenerateRequest;
 import com.aisinger.dto.SingerGenerateResponse;
+import com.aisinger.dto.SingerSummary;
 import com.aisinger.entity.Singer;
 import com.aisinger.service.LlmService;
 import com.aisinger.service.SingerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 
@@ -30,6 +34,25 @@ public class SingerController {
         return ApiResponse.success(singerService.getAllSingersIncludeDisabled());
     }
     
+    /**
+     * 启用歌手列表（摘要 + 游标分页），完整信息走详情接口
+     */
+    @GetMapping("/page")
+    public ApiResponse<CursorPage<SingerSummary>> getSingerPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ApiResponse.success(singerService.getSingerPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/popular")
+    public ApiResponse<List<Singer>> getPopularSingers() {
+        return ApiResponse.success(singerService.getPopularSingers());
+    }
+    
     @GetMapping("/{id}")
     public ApiResponse<Singer> getSingerById(@PathVariable Long id) {
         return singerService.getSingerById(id)
@@ -57,6 +80,15 @@ public class SingerController {
         return ApiResponse.success("歌手更新成功", singerService.updateSinger(id, singer));
     }
     
+    /**
+     * 使用歌手（增加热度）
+     */
+    @PostMapping("/{id}/use")
+    public ApiResponse<Void> useSinger(@PathVariable Long id) {
+        singerService.recordUse(id);
+        return ApiResponse.success("已记录使用", null);
+    }
+    
     @DeleteMapping("/{id}")
     public ApiResponse<Void> deleteSinger(@PathVariable Long id) {
         singerService.deleteSinger(id);
@@ -68,19 +100,19 @@ public class SingerController {
      * 根据用户的自然语言描述，使用LLM生成完整的歌手配置
      */
     @PostMapping("/generate")
-    public ApiResponse<SingerGenerateResponse> generateSinger(@RequestBody SingerGenerateRequest request) {
+    public Mono<ApiResponse<SingerGenerateResponse>> generateSinger(@RequestBody SingerGenerateRequest request) {
         if (request.getPrompt() == null || request.getPrompt().trim().isEmpty()) {
-            return ApiResponse.error("请输入歌手描述");
+            return Mono.just(ApiResponse.error("请输入歌手描述"));
         }
         
-        // 调用LLM生成歌手配置
-        SingerGenerateResponse response = llmService.generateSinger(request);
-        
-        // 保存生成的歌手到数据库
-        Singer savedSinger = singerService.createSinger(response.getSinger());
-        response.setSinger(savedSinger);
-        
-        return ApiResponse.success("AI歌手创建成功", response);
+        // 调用LLM生成歌手配置（非阻塞），保存到数据库的步骤切换到弹性线程池执行
+        return llmService.generateSingerAsync(request)
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    Singer savedSinger = singerService.createSinger(response.getSinger());
+                    response.setSinger(savedSinger);
+                    return ApiResponse.success("AI歌手创建成功", response);
+                });
     }
     
     /**
@@ -88,14 +120,13 @@ public class SingerController {
      * 仅生成配置供用户预览和修改
      */
     @PostMapping("/generate/preview")
-    public ApiResponse<SingerGenerateResponse> previewGenerateSinger(@RequestBody SingerGenerateRequest request) {
+    public Mono<ApiResponse<SingerGenerateResponse>> previewGenerateSinger(@RequestBody SingerGenerateRequest request) {
         if (request.getPrompt() == null || request.getPrompt().trim().isEmpty()) {
-            return ApiResponse.error("请输入歌手描述");
+            return Mono.just(ApiResponse.error("请输入歌手描述"));
         }
         
         // 调用LLM生成歌手配置（不保存）
-        SingerGenerateResponse response = llmService.generateSinger(request);
-        
-        return ApiResponse.success("歌手配置生成成功", response);
+        return llmService.generateSingerAsync(request)
+                .map(response -> ApiResponse.success("歌手配置生成成功", response));
     }
 }
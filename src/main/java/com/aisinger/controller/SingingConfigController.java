@@ -1,6 +1,8 @@
 package com.aisinger.controller;
 
 import com.aisinger.dto.ApiResponse;
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.SingingConfigSummary;
 import com.aisinger.entity.SingingConfig;
 import com.aisinger.service.SingingConfigService;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +38,20 @@ public class SingingConfigController {
         return ApiResponse.success(singingConfigService.getAllConfigsIncludeDisabled());
     }
     
+    /**
+     * 启用配置列表（摘要 + 游标分页），完整参数走详情接口
+     */
+    @GetMapping("/page")
+    public ApiResponse<CursorPage<SingingConfigSummary>> getConfigPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ApiResponse.success(singingConfigService.getConfigPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+    
     /**
      * 根据ID获取配置
      */
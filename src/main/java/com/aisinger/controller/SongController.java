@@ -1,15 +1,28 @@
 package com.aisinger.controller;
 
 import com.aisinger.dto.ApiResponse;
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.LyricsBatchEvent;
+import com.aisinger.dto.LyricsBatchRequest;
 import com.aisinger.dto.LyricsGenerateRequest;
 import com.aisinger.dto.LyricsGenerateResponse;
+import com.aisinger.dto.LyricsStreamEvent;
 import com.aisinger.dto.SongCreateRequest;
+import com.aisinger.dto.SongDetail;
+import com.aisinger.dto.SongRenderResult;
+import com.aisinger.dto.SongSummary;
 import com.aisinger.entity.Song;
 import com.aisinger.service.LlmService;
+import com.aisinger.service.LyricsBatchService;
+import com.aisinger.service.SongRenderService;
 import com.aisinger.service.SongService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -21,15 +34,32 @@ public class SongController {
     
     private final SongService songService;
     private final LlmService llmService;
+    private final SongRenderService songRenderService;
+    private final LyricsBatchService lyricsBatchService;
     
     @GetMapping
     public ApiResponse<List<Song>> getAllSongs() {
         return ApiResponse.success(songService.getAllSongs());
     }
     
+    /**
+     * 歌曲列表（摘要 + 游标分页），完整信息走详情接口
+     */
+    @GetMapping("/page")
+    public ApiResponse<CursorPage<SongSummary>> getSongPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ApiResponse.success(songService.getSongPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ApiResponse<Song> getSongById(@PathVariable Long id) {
+    public ApiResponse<SongDetail> getSongById(@PathVariable Long id) {
         return songService.getSongById(id)
+                .map(SongDetail::of)
                 .map(ApiResponse::success)
                 .orElse(ApiResponse.error("歌曲不存在"));
     }
@@ -50,13 +80,26 @@ public class SongController {
     }
     
     @PostMapping
-    public ApiResponse<Song> createSong(@Valid @RequestBody SongCreateRequest request) {
-        return ApiResponse.success("歌曲创建成功", songService.createSong(request));
+    public ApiResponse<SongDetail> createSong(@Valid @RequestBody SongCreateRequest request) {
+        return ApiResponse.success("歌曲创建成功", SongDetail.of(songService.createSong(request)));
     }
     
     @PostMapping("/generate-lyrics")
-    public ApiResponse<LyricsGenerateResponse> generateLyrics(@RequestBody LyricsGenerateRequest request) {
-        return ApiResponse.success("歌词生成成功", llmService.generateLyrics(request));
+    public Mono<ApiResponse<LyricsGenerateResponse>> generateLyrics(@RequestBody LyricsGenerateRequest request) {
+        return llmService.generateLyricsAsync(request)
+                .map(response -> ApiResponse.success("歌词生成成功", response));
+    }
+    
+    @PostMapping(value = "/generate-lyrics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LyricsStreamEvent>> streamLyrics(@RequestBody LyricsGenerateRequest request) {
+        return llmService.streamLyrics(request)
+                .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+    }
+    
+    @PostMapping(value = "/generate-lyrics/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LyricsBatchEvent>> generateLyricsBatch(@RequestBody LyricsBatchRequest request) {
+        return lyricsBatchService.generate(request)
+                .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
     }
     
     @PostMapping("/create-from-generated")
@@ -70,6 +113,27 @@ public class SongController {
                 songService.createGeneratedSong(title, lyrics, style, bpm, singerId));
     }
     
+    @PostMapping("/{id}/render")
+    public ApiResponse<SongRenderResult> renderSong(
+            @PathVariable Long id,
+            @RequestParam(required = false) String engine) {
+        SongRenderResult result = engine != null
+                ? songRenderService.render(id, engine)
+                : songRenderService.render(id);
+        return result.isSuccess()
+                ? ApiResponse.success("歌曲渲染成功", result)
+                : ApiResponse.error(result.getErrorMessage());
+    }
+    
+    @GetMapping("/{id}/render/stale")
+    public ApiResponse<List<Long>> getStaleSegments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String engine) {
+        return ApiResponse.success(engine != null
+                ? songRenderService.findStaleSegments(id, engine)
+                : songRenderService.findStaleSegments(id));
+    }
+    
     @DeleteMapping("/{id}")
     public ApiResponse<Void> deleteSong(@PathVariable Long id) {
         songService.deleteSong(id);
@@ -2,12 +2,19 @@ package com.aisinger.controller;
 
 import com.aisinger.config.AiSingerProperties;
 import com.aisinger.dto.ApiResponse;
+import com.aisinger.synthesis.SynthesisJobService;
 import com.aisinger.synthesis.SynthesisService;
+import com.aisinger.synthesis.dto.SynthesisJob;
 import com.aisinger.synthesis.dto.SynthesisRequest;
 import com.aisinger.synthesis.dto.SynthesisResult;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -17,9 +24,11 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/synthesis")
 @RequiredArgsConstructor
+@Slf4j
 public class SynthesisController {
     
     private final SynthesisService synthesisService;
+    private final SynthesisJobService synthesisJobService;
     
     /**
      * 执行声音合成
@@ -49,6 +58,104 @@ public class SynthesisController {
         }
     }
     
+    /**
+     * 流式合成 - 音频随提供商返回逐块输出，首字节延迟即提供商首字节延迟
+     * 引擎校验和准入在响应提交前完成，失败时返回错误状态；输出中途失败则中断连接，不返回截断的音频
+     */
+    @PostMapping("/stream/{engine}")
+    public ResponseEntity<?> streamWithEngine(
+            @PathVariable String engine,
+            @RequestBody SynthesisRequest request) {
+        SynthesisService.StreamSession session = synthesisService.openStream(engine, request);
+        if (session.isFailed()) {
+            log.warn("流式合成失败: {}", session.getFailure());
+            return ResponseEntity.status(session.getFailureStatus())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ApiResponse.error(session.getFailure()));
+        }
+        StreamingResponseBody body = out -> {
+            try (session) {
+                session.writeTo(out);
+            } catch (IOException e) {
+                log.warn("流式合成中断: {}", e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("audio/mpeg"))
+                .body(body);
+    }
+    
+    /**
+     * 提交异步合成任务（立即返回任务ID）
+     */
+    @PostMapping("/jobs")
+    public ApiResponse<SynthesisJob> submitJob(
+            @RequestParam(required = false) String engine,
+            @RequestBody SynthesisRequest request) {
+        try {
+            SynthesisJob job = engine != null
+                    ? synthesisJobService.submit(engine, request)
+                    : synthesisJobService.submit(request);
+            return ApiResponse.success("合成任务已提交", job);
+        } catch (Exception e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+    
+    /**
+     * 查询合成任务状态
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ApiResponse<SynthesisJob> getJob(@PathVariable String jobId) {
+        return synthesisJobService.getJob(jobId)
+                .map(ApiResponse::success)
+                .orElse(ApiResponse.error("任务不存在: " + jobId));
+    }
+    
+    /**
+     * 获取合成任务结果
+     */
+    @GetMapping("/jobs/{jobId}/result")
+    public ApiResponse<SynthesisResult> getJobResult(@PathVariable String jobId) {
+        return synthesisJobService.getJob(jobId)
+                .map(job -> {
+                    if (!job.isFinished()) {
+                        return ApiResponse.<SynthesisResult>error("任务尚未完成，当前状态: " + job.getStatus());
+                    }
+                    if (SynthesisJob.STATUS_FAILED.equals(job.getStatus())) {
+                        return ApiResponse.<SynthesisResult>error(job.getErrorMessage());
+                    }
+                    return ApiResponse.success(job.getResult());
+                })
+                .orElse(ApiResponse.error("任务不存在: " + jobId));
+    }
+    
+    /**
+     * 获取合成线程池状态
+     */
+    @GetMapping("/jobs/stats")
+    public ApiResponse<Map<String, Object>> getJobStats() {
+        return ApiResponse.success(synthesisJobService.getExecutorStats());
+    }
+    
+    /**
+     * 获取合成缓存统计
+     */
+    @GetMapping("/cache/stats")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        return ApiResponse.success(synthesisService.getCacheStats());
+    }
+    
+    /**
+     * 清空合成缓存
+     */
+    @DeleteMapping("/cache")
+    public ApiResponse<Void> clearCache() {
+        synthesisService.clearCache();
+        return ApiResponse.success("合成缓存已清空", null);
+    }
+    
     /**
      * 获取可用的合成引擎
      */
@@ -81,6 +188,15 @@ public class SynthesisController {
         return ApiResponse.success(synthesisService.getConfiguredEmotions());
     }
     
+    /**
+     * 重新加载歌手/技巧/情绪配置索引
+     */
+    @PostMapping("/catalog/refresh")
+    public ApiResponse<Void> refreshCatalog() {
+        synthesisService.refreshCatalog();
+        return ApiResponse.success("合成参数目录已重新加载", null);
+    }
+    
     /**
      * 快速试听预览 - 用于验证配置效果
      * 使用OpenAI TTS进行真实语音合成
@@ -1,10 +1,15 @@
 package com.aisinger.controller;
 
+import com.aisinger.config.OutboundHttpClients;
 import com.aisinger.dto.ApiResponse;
 import com.aisinger.entity.JamendoConfig;
 import com.aisinger.entity.LlmConfig;
 import com.aisinger.service.JamendoConfigService;
+import com.aisinger.service.LlmCircuitBreakers;
 import com.aisinger.service.LlmConfigService;
+import com.aisinger.service.LlmLatencyTracker;
+import com.aisinger.service.LlmResponseCache;
+import com.aisinger.service.ProviderAdmission;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +29,11 @@ public class SystemConfigController {
     
     private final LlmConfigService llmConfigService;
     private final JamendoConfigService jamendoConfigService;
+    private final OutboundHttpClients outboundHttpClients;
+    private final LlmResponseCache llmResponseCache;
+    private final LlmLatencyTracker llmLatencyTracker;
+    private final LlmCircuitBreakers llmCircuitBreakers;
+    private final ProviderAdmission providerAdmission;
     
     // ==================== LLM配置 ====================
     
@@ -185,6 +195,10 @@ public class SystemConfigController {
         llmStatus.put("displayName", activeLlm.getDisplayName());
         llmStatus.put("hasApiKey", activeLlm.getApiKey() != null && !activeLlm.getApiKey().isEmpty());
         llmStatus.put("enabled", activeLlm.getEnabled());
+        llmStatus.put("cache", llmResponseCache.getStats());
+        llmStatus.put("latency", llmLatencyTracker.getStats());
+        llmStatus.put("breakers", llmCircuitBreakers.getStats());
+        llmStatus.put("breakerState", llmCircuitBreakers.getState(activeLlm.getProvider()).name());
         status.put("llm", llmStatus);
         
         // Jamendo状态
@@ -196,4 +210,20 @@ public class SystemConfigController {
         
         return ApiResponse.success(status);
     }
+    
+    /**
+     * 获取出站HTTP连接池统计
+     */
+    @GetMapping("/http-pools")
+    public ApiResponse<Map<String, Object>> getHttpPoolStats() {
+        return ApiResponse.success(outboundHttpClients.getPoolStats());
+    }
+    
+    /**
+     * 获取提供商准入控制统计（限速、并发、排队和等待时间）
+     */
+    @GetMapping("/admission")
+    public ApiResponse<Map<String, Object>> getAdmissionStats() {
+        return ApiResponse.success(providerAdmission.getStats());
+    }
 }
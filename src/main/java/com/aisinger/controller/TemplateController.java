@@ -3,6 +3,7 @@ package com.aisinger.controller;
 import com.aisinger.dto.ApiResponse;
 import com.aisinger.entity.SongTemplate;
 import com.aisinger.repository.SongTemplateRepository;
+import com.aisinger.service.UsageCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +19,7 @@ import java.util.List;
 public class TemplateController {
     
     private final SongTemplateRepository templateRepository;
+    private final UsageCounterService usageCounterService;
     
     @GetMapping
     public ApiResponse<List<SongTemplate>> getAllTemplates() {
@@ -26,7 +28,11 @@ public class TemplateController {
     
     @GetMapping("/popular")
     public ApiResponse<List<SongTemplate>> getPopularTemplates() {
-        return ApiResponse.success(templateRepository.findTop10ByEnabledTrueOrderByUseCountDesc());
+        List<Long> ids = usageCounterService.topIds(UsageCounterService.Target.SONG_TEMPLATE);
+        if (ids.isEmpty()) {
+            return ApiResponse.success(templateRepository.findTop10ByEnabledTrueOrderByUseCountDesc());
+        }
+        return ApiResponse.success(UsageCounterService.inOrder(ids, templateRepository.findAllById(ids), SongTemplate::getId));
     }
     
     @GetMapping("/category/{category}")
@@ -41,12 +47,15 @@ public class TemplateController {
                 .orElse(ApiResponse.error("模板不存在"));
     }
     
+    /**
+     * 使用模板（增加使用次数）；计数定期写库，返回的模板中使用次数可能尚未包含本次
+     */
     @PostMapping("/{id}/use")
     public ApiResponse<SongTemplate> useTemplate(@PathVariable Long id) {
         return templateRepository.findById(id)
                 .map(template -> {
-                    template.setUseCount(template.getUseCount() + 1);
-                    return ApiResponse.success(templateRepository.save(template));
+                    usageCounterService.record(UsageCounterService.Target.SONG_TEMPLATE, id);
+                    return ApiResponse.success(template);
                 })
                 .orElse(ApiResponse.error("模板不存在"));
     }
@@ -0,0 +1,81 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果（键集分页）
+ * 游标为上一页最后一行的排序键，下一页从该键之后继续查询，耗时不随翻页深度增长
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    
+    private List<T> items;
+    private String nextCursor; // 下一页游标，没有更多数据时为null
+    private boolean hasMore;
+    
+    /**
+     * 规范化每页条数：未指定时取默认值，并限制在 1 ~ MAX_SIZE
+     */
+    public static int sizeOf(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(MAX_SIZE, size));
+    }
+    
+    /**
+     * 由多查一行（size + 1）的结果构造分页
+     *
+     * @param rows     查询结果，最多 size + 1 行
+     * @param size     每页条数
+     * @param cursorOf 由一行计算其游标
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * 组合游标："排序键,ID"
+     */
+    public static String cursor(Object sortKey, Long id) {
+        return sortKey + "," + id;
+    }
+    
+    /**
+     * 拆分组合游标，返回 [排序键, ID]
+     *
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public static String[] split(String cursor) {
+        int index = cursor.lastIndexOf(',');
+        if (index <= 0 || index == cursor.length() - 1) {
+            throw invalid(cursor);
+        }
+        return new String[]{cursor.substring(0, index), cursor.substring(index + 1)};
+    }
+    
+    /**
+     * 游标格式错误，控制器捕获后返回错误响应
+     */
+    public static IllegalArgumentException invalid(String cursor) {
+        return new IllegalArgumentException("无效的分页游标: " + cursor);
+    }
+}
@@ -0,0 +1,37 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量歌词生成事件（SSE事件名即 type）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LyricsBatchEvent {
+    
+    public static final String ITEM = "item";
+    public static final String DONE = "done";
+    
+    private String type;            // 事件类型：item, done
+    
+    // item事件
+    private Integer index;          // 条目在批次中的序号（从0开始）
+    private Boolean success;
+    private LyricsGenerateResponse result;
+    private Long processingTimeMs;
+    
+    private String errorMessage;    // 条目失败原因，或批次被拒绝/保存失败的原因
+    
+    // done事件
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<Long> songIds;     // 保存的歌曲ID，与成功条目按序号顺序对应
+}
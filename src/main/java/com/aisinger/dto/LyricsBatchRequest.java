@@ -0,0 +1,25 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量歌词生成请求DTO
+ * 直接给出 items，或给出一个 template 加若干 variations（variation 中非空字段覆盖模板）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LyricsBatchRequest {
+    
+    private List<LyricsGenerateRequest> items;      // 逐条请求
+    private LyricsGenerateRequest template;         // 模板请求
+    private List<LyricsGenerateRequest> variations; // 基于模板的变化
+    private Boolean persist;     // 是否将生成成功的歌词保存为歌曲（整个批次一个事务）
+    private Long singerId;       // 保存歌曲时关联的歌手
+}
@@ -22,4 +22,5 @@ public class LyricsGenerateRequest {
     private Boolean hasChorus;   // 是否包含副歌
     private String keywords;     // 关键词（用逗号分隔）
     private String additionalPrompt; // 额外提示词
+    private Boolean reuse;       // 是否复用相同请求的已生成结果
 }
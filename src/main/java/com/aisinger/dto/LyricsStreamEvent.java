@@ -0,0 +1,29 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 流式歌词生成事件（SSE事件名即 type）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LyricsStreamEvent {
+    
+    public static final String TOKEN = "token";
+    public static final String TITLE = "title";
+    public static final String STYLE = "style";
+    public static final String BPM = "bpm";
+    public static final String SECTION = "section";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+    
+    private String type;            // 事件类型：token, title, style, bpm, section, done, error
+    private String content;         // 增量文本 / 标题 / 风格 / BPM / 错误信息
+    private LyricsGenerateResponse.LyricsSection section; // 已闭合的歌词段落
+    private LyricsGenerateResponse result; // 完整结果（done事件）
+}
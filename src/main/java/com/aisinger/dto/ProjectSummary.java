@@ -0,0 +1,22 @@
+package com.aisinger.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 项目列表摘要（接口投影）
+ * 不含完整配置JSON
+ */
+public interface ProjectSummary {
+    
+    Long getId();
+    
+    String getName();
+    
+    String getStatus();
+    
+    String getSingerName();
+    
+    String getSongTitle();
+    
+    LocalDateTime getUpdatedAt();
+}
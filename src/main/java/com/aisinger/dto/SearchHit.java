@@ -0,0 +1,21 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 全文搜索命中项
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    
+    private String type; // song, singer, template
+    private Long id;
+    private String title;
+    private float score; // 相关度得分，越高越相关
+}
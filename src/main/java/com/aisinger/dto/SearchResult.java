@@ -0,0 +1,25 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 全文搜索结果（按相关度排序，页码从0开始）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+    
+    private String keyword;
+    private long total; // 命中总数
+    private int page;
+    private int size;
+    private List<SearchHit> hits;
+    private long tookMs; // 搜索耗时（毫秒）
+}
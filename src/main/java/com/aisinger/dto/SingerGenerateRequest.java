@@ -31,4 +31,10 @@ public class SingerGenerateRequest {
      * 目标语言（可选，默认中文）
      */
     private String language;
+    
+    /**
+     * 是否复用相同描述的已生成结果（可选）
+     * 例如预览后直接保存时传true，避免再调用一次LLM
+     */
+    private Boolean reuse;
 }
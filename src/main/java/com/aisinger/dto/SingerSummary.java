@@ -0,0 +1,32 @@
+package com.aisinger.dto;
+
+/**
+ * 歌手列表摘要（接口投影）
+ * 不含介绍、授权说明、模型配置等大字段，完整信息走详情接口
+ */
+public interface SingerSummary {
+    
+    Long getId();
+    
+    String getName();
+    
+    String getNameEn();
+    
+    String getAvatarUrl();
+    
+    String getVoiceType();
+    
+    String getVoiceStyle();
+    
+    String getVoiceCharacter();
+    
+    String getTags();
+    
+    String getCategory();
+    
+    Boolean getIsPremium();
+    
+    Integer getSortOrder();
+    
+    Integer getPopularity();
+}
@@ -0,0 +1,26 @@
+package com.aisinger.dto;
+
+/**
+ * 演唱配置列表摘要（接口投影）
+ * 不含各项演唱参数，完整配置走详情接口
+ */
+public interface SingingConfigSummary {
+    
+    Long getId();
+    
+    String getName();
+    
+    String getNameEn();
+    
+    String getCategory();
+    
+    String getUseCase();
+    
+    Integer getDefaultBpm();
+    
+    Boolean getIsPreset();
+    
+    Integer getSortOrder();
+    
+    Integer getUseCount();
+}
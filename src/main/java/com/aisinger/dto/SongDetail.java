@@ -0,0 +1,30 @@
+package com.aisinger.dto;
+
+import com.aisinger.entity.MusicSegment;
+import com.aisinger.entity.Song;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 歌曲详情DTO
+ * 歌曲实体的片段集合不参与序列化，列表接口不会因序列化加载片段；
+ * 详情接口通过本DTO显式带上片段，歌曲字段平铺输出，响应结构与直接返回实体时一致
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongDetail {
+    
+    @JsonUnwrapped
+    private Song song;
+    
+    private List<MusicSegment> segments; // 按顺序排列的片段
+    
+    public static SongDetail of(Song song) {
+        return new SongDetail(song, song.getSegments());
+    }
+}
@@ -0,0 +1,45 @@
+package com.aisinger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 歌曲渲染结果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongRenderResult {
+    
+    private Long songId;            // 歌曲ID
+    private boolean success;        // 是否成功
+    private String errorMessage;    // 错误信息（如果失败）
+    private String audioUrl;        // 整首歌曲的音频URL
+    private String format;          // 音频格式
+    private Double duration;        // 总时长(秒)
+    private String engine;          // 使用的引擎
+    private Long processingTimeMs;  // 处理时间(毫秒)
+    private List<SegmentRender> segments; // 各片段的渲染结果
+    private List<String> warnings;  // 渲染成功但未生效的设置（如音频格式不支持调整片段音量）
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SegmentRender {
+        private Long segmentId;         // 片段ID
+        private Integer segmentOrder;   // 片段顺序
+        private String segmentType;     // 片段类型
+        private Double startTime;       // 时间轴上的开始时间(秒)
+        private Double duration;        // 片段音频时长(秒)
+        private String audioUrl;        // 片段音频URL
+        private boolean success;        // 是否成功
+        private boolean reused;         // 参数未变化，复用了上次渲染的音频
+        private String errorMessage;    // 错误信息（如果失败）
+    }
+}
@@ -0,0 +1,34 @@
+package com.aisinger.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 歌曲列表摘要（接口投影）
+ * 只查询列表展示需要的列，不含歌词和片段
+ */
+public interface SongSummary {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    String getMusicStyle();
+    
+    Integer getBpm();
+    
+    Boolean getIsGenerated();
+    
+    String getArtist();
+    
+    String getCoverUrl();
+    
+    String getAudioUrl();
+    
+    String getExternalSource();
+    
+    Long getSingerId();
+    
+    String getSingerName();
+    
+    LocalDateTime getCreatedAt();
+}
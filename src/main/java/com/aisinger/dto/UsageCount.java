@@ -0,0 +1,11 @@
+package com.aisinger.dto;
+
+/**
+ * 使用计数（接口投影）：ID + 当前库中的累计值
+ */
+public interface UsageCount {
+    
+    Long getId();
+    
+    Integer getTotal();
+}
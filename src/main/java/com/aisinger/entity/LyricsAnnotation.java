@@ -18,7 +18,8 @@ import lombok.NoArgsConstructor;
 public class LyricsAnnotation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lyricsAnnotationIdGenerator")
+    @SequenceGenerator(name = "lyricsAnnotationIdGenerator", sequenceName = "lyrics_annotations_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.aisinger.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,13 +19,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class MusicSegment {
     
+    // 与歌曲相同使用池化序列，一首歌的片段可合并为一个插入批次
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "musicSegmentIdGenerator")
+    @SequenceGenerator(name = "musicSegmentIdGenerator", sequenceName = "music_segments_seq", allocationSize = 50)
     private Long id;
     
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "song_id", nullable = false)
-    private Song song;
+    private Song song; // 所属歌曲（反向引用，不参与序列化）
     
     @Column(name = "segment_order")
     private Integer segmentOrder; // 片段顺序
@@ -41,11 +45,11 @@ public class MusicSegment {
     @Column(length = 2000)
     private String lyrics; // 该片段的歌词
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "technique_id")
     private SingingTechnique technique; // 演唱技巧
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "emotion_id")
     private Emotion emotion; // 演唱情绪
     
@@ -56,4 +60,18 @@ public class MusicSegment {
     private Integer pitchShift = 0; // 音高偏移 -12到+12半音
     
     private String notes; // 备注
+    
+    // ==================== 渲染状态 ====================
+    
+    @Column(name = "render_fingerprint", length = 64)
+    private String renderFingerprint; // 最近一次渲染时的合成参数指纹
+    
+    @Column(name = "rendered_audio_url")
+    private String renderedAudioUrl; // 最近一次渲染的片段音频URL
+    
+    @Column(name = "rendered_audio_path")
+    private String renderedAudioPath; // 最近一次渲染的片段音频文件路径
+    
+    @Column(name = "rendered_duration")
+    private Double renderedDuration; // 最近一次渲染的片段时长(秒)
 }
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * 项目实体 - 保存用户的创作项目
  */
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = @Index(name = "idx_projects_updated_at", columnList = "updated_at, id"))
 @Data
 @Builder
 @NoArgsConstructor
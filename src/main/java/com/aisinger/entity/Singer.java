@@ -1,5 +1,7 @@
 package com.aisinger.entity;
 
+import com.aisinger.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +13,9 @@ import lombok.NoArgsConstructor;
  * 包含声音特征、音域、支持的语言、演唱能力等配置
  */
 @Entity
-@Table(name = "singers")
+@EntityListeners(SearchIndexListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "singers", indexes = @Index(name = "idx_singers_sort_order", columnList = "sort_order, id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -169,9 +173,18 @@ public class Singer {
     @Column(name = "is_premium")
     private Boolean isPremium = false; // 是否为付费/高级
     
-    @Column(name = "sort_order")
-    private Integer sortOrder = 0; // 排序顺序
+    @Builder.Default
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder = 0; // 排序顺序，键集分页按 (sort_order, id) 走索引，不允许为空
     
     @Column(name = "popularity")
     private Integer popularity = 0; // 热度/使用次数
+    
+    @PrePersist
+    @PreUpdate
+    protected void normalizeSortOrder() {
+        if (sortOrder == null) {
+            sortOrder = 0;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.aisinger.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,8 @@ import java.time.LocalDateTime;
  * 包含节奏、力度、发音、音高、效果等完整的演唱控制参数
  */
 @Entity
-@Table(name = "singing_configs")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "singing_configs", indexes = @Index(name = "idx_singing_configs_sort_order", columnList = "sort_order, id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -344,9 +346,10 @@ public class SingingConfig {
     private Boolean enabled = true;
     
     /**
-     * 排序顺序
+     * 排序顺序（不允许为空，键集分页按 (sort_order, id) 走索引）
      */
-    @Column(name = "sort_order")
+    @Builder.Default
+    @Column(name = "sort_order", nullable = false)
     private Integer sortOrder = 0;
     
     /**
@@ -371,10 +374,16 @@ public class SingingConfig {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (sortOrder == null) {
+            sortOrder = 0;
+        }
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (sortOrder == null) {
+            sortOrder = 0;
+        }
     }
 }
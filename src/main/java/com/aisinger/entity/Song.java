@@ -1,10 +1,14 @@
 package com.aisinger.entity;
 
+import com.aisinger.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,6 +18,8 @@ import java.util.List;
  * 歌曲实体
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "songs")
 @Data
 @Builder
@@ -21,8 +27,10 @@ import java.util.List;
 @AllArgsConstructor
 public class Song {
     
+    // 序列 + 池化分配（每次取50个ID），插入前即可得到ID，使JDBC批量插入生效
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "songIdGenerator")
+    @SequenceGenerator(name = "songIdGenerator", sequenceName = "songs_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -82,7 +90,12 @@ public class Song {
     @JoinColumn(name = "singing_config_id")
     private SingingConfig singingConfig; // 关联的演唱配置
     
+    // 未通过实体图抓取时按批加载，多首歌曲的片段合并为少量IN查询；
+    // 不参与序列化，避免列表接口逐首加载片段，详情接口通过 SongDetail 输出
+    @JsonIgnore
     @OneToMany(mappedBy = "song", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("segmentOrder ASC")
+    @BatchSize(size = 50)
     @Builder.Default
     private List<MusicSegment> segments = new ArrayList<>();
     
@@ -1,5 +1,6 @@
 package com.aisinger.entity;
 
+import com.aisinger.service.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
  * 歌曲模板实体 - 提供预设的歌曲风格模板
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "song_templates")
 @Data
 @Builder
@@ -1,17 +1,38 @@
 package com.aisinger.repository;
 
 import com.aisinger.entity.MusicSegment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MusicSegmentRepository extends JpaRepository<MusicSegment, Long> {
     
+    /**
+     * 片段抓取计划：技巧和情绪随片段一次JOIN查出
+     */
+    @Override
+    @EntityGraph(attributePaths = {"technique", "emotion"})
+    Optional<MusicSegment> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"technique", "emotion"})
     List<MusicSegment> findBySongIdOrderBySegmentOrderAsc(Long songId);
     
+    @EntityGraph(attributePaths = {"technique", "emotion"})
     List<MusicSegment> findByTechniqueId(Long techniqueId);
     
+    @EntityGraph(attributePaths = {"technique", "emotion"})
     List<MusicSegment> findByEmotionId(Long emotionId);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE MusicSegment m SET m.renderFingerprint = :fingerprint, m.renderedAudioUrl = :audioUrl, " +
+            "m.renderedAudioPath = :audioPath, m.renderedDuration = :duration WHERE m.id = :id")
+    int updateRenderState(Long id, String fingerprint, String audioUrl, String audioPath, Double duration);
 }
@@ -1,9 +1,13 @@
 package com.aisinger.repository;
 
+import com.aisinger.dto.ProjectSummary;
 import com.aisinger.entity.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,14 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findAllByOrderByUpdatedAtDesc();
     
     List<Project> findByStatus(String status);
+    
+    /**
+     * 项目摘要键集分页：按 (更新时间, ID) 倒序，只取游标之前的行
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.status AS status, sg.name AS singerName, "
+            + "so.title AS songTitle, p.updatedAt AS updatedAt "
+            + "FROM Project p LEFT JOIN p.singer sg LEFT JOIN p.song so "
+            + "WHERE p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt AND p.id < :beforeId) "
+            + "ORDER BY p.updatedAt DESC, p.id DESC")
+    List<ProjectSummary> findSummariesBefore(LocalDateTime updatedAt, Long beforeId, Pageable pageable);
 }
@@ -1,8 +1,14 @@
 package com.aisinger.repository;
 
+import com.aisinger.dto.SingerSummary;
+import com.aisinger.dto.UsageCount;
 import com.aisinger.entity.Singer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,4 +20,32 @@ public interface SingerRepository extends JpaRepository<Singer, Long> {
     List<Singer> findByVoiceTypeAndEnabledTrue(String voiceType);
     
     List<Singer> findByVoiceStyleAndEnabledTrue(String voiceStyle);
+    
+    List<Singer> findTop10ByEnabledTrueOrderByPopularityDesc();
+    
+    /**
+     * 启用歌手摘要键集分页：按 (排序顺序, ID) 升序，只取游标之后的行
+     */
+    @Query("SELECT s.id AS id, s.name AS name, s.nameEn AS nameEn, s.avatarUrl AS avatarUrl, "
+            + "s.voiceType AS voiceType, s.voiceStyle AS voiceStyle, s.voiceCharacter AS voiceCharacter, "
+            + "s.tags AS tags, s.category AS category, s.isPremium AS isPremium, "
+            + "s.sortOrder AS sortOrder, s.popularity AS popularity "
+            + "FROM Singer s WHERE s.enabled = true AND (s.sortOrder > :sortOrder "
+            + "OR (s.sortOrder = :sortOrder AND s.id > :afterId)) "
+            + "ORDER BY s.sortOrder, s.id")
+    List<SingerSummary> findEnabledSummariesAfter(int sortOrder, Long afterId, Pageable pageable);
+    
+    /**
+     * 热度原子自增（单条UPDATE，不读取实体）
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Singer s SET s.popularity = COALESCE(s.popularity, 0) + :delta WHERE s.id = :id")
+    int addPopularity(Long id, int delta);
+    
+    /**
+     * 启用歌手的热度，用于维护热门排行
+     */
+    @Query("SELECT s.id AS id, COALESCE(s.popularity, 0) AS total FROM Singer s WHERE s.enabled = true")
+    List<UsageCount> findEnabledPopularity();
 }
@@ -1,8 +1,14 @@
 package com.aisinger.repository;
 
+import com.aisinger.dto.SingingConfigSummary;
+import com.aisinger.dto.UsageCount;
 import com.aisinger.entity.SingingConfig;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -38,4 +44,29 @@ public interface SingingConfigRepository extends JpaRepository<SingingConfig, Lo
      * 根据名称模糊搜索
      */
     List<SingingConfig> findByNameContainingAndEnabledTrue(String keyword);
+    
+    /**
+     * 启用配置摘要键集分页：按 (排序顺序, ID) 升序，只取游标之后的行
+     */
+    @Query("SELECT c.id AS id, c.name AS name, c.nameEn AS nameEn, c.category AS category, c.useCase AS useCase, "
+            + "c.defaultBpm AS defaultBpm, c.isPreset AS isPreset, c.sortOrder AS sortOrder, "
+            + "c.useCount AS useCount "
+            + "FROM SingingConfig c WHERE c.enabled = true AND (c.sortOrder > :sortOrder "
+            + "OR (c.sortOrder = :sortOrder AND c.id > :afterId)) "
+            + "ORDER BY c.sortOrder, c.id")
+    List<SingingConfigSummary> findEnabledSummariesAfter(int sortOrder, Long afterId, Pageable pageable);
+    
+    /**
+     * 使用次数原子自增（单条UPDATE，不读取实体）
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SingingConfig c SET c.useCount = COALESCE(c.useCount, 0) + :delta WHERE c.id = :id")
+    int addUseCount(Long id, int delta);
+    
+    /**
+     * 启用配置的使用次数，用于维护热门排行
+     */
+    @Query("SELECT c.id AS id, COALESCE(c.useCount, 0) AS total FROM SingingConfig c WHERE c.enabled = true")
+    List<UsageCount> findEnabledUseCounts();
 }
@@ -1,23 +1,64 @@
 package com.aisinger.repository;
 
+import com.aisinger.dto.SongSummary;
 import com.aisinger.entity.Song;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface SongRepository extends JpaRepository<Song, Long> {
     
+    /**
+     * 列表抓取计划：歌手和演唱配置随歌曲一次JOIN查出，片段不抓取（需要时按批加载）
+     */
+    @Override
+    @EntityGraph(attributePaths = {"singer", "singingConfig"})
+    List<Song> findAll();
+    
+    @EntityGraph(attributePaths = {"singer", "singingConfig"})
     List<Song> findBySingerId(Long singerId);
     
+    @EntityGraph(attributePaths = {"singer", "singingConfig"})
     List<Song> findByMusicStyle(String musicStyle);
     
+    @EntityGraph(attributePaths = {"singer", "singingConfig"})
     List<Song> findByIsGeneratedTrue();
     
-    @Query("SELECT s FROM Song s LEFT JOIN FETCH s.segments WHERE s.id = :id")
+    /**
+     * 详情抓取计划：歌曲、歌手、演唱配置、片段及片段的技巧和情绪一次查询取回，查询数与片段数无关
+     */
+    @EntityGraph(attributePaths = {"singer", "singingConfig", "segments", "segments.technique", "segments.emotion"})
+    @Query("SELECT s FROM Song s WHERE s.id = :id")
     Song findByIdWithSegments(Long id);
     
+    @EntityGraph(attributePaths = {"singer", "singingConfig"})
     List<Song> findByTitleContainingIgnoreCase(String title);
+    
+    /**
+     * 歌曲摘要键集分页：按ID倒序（新歌在前），只取ID小于游标的行，走主键索引
+     */
+    @Query("SELECT s.id AS id, s.title AS title, s.musicStyle AS musicStyle, s.bpm AS bpm, "
+            + "s.isGenerated AS isGenerated, s.artist AS artist, s.coverUrl AS coverUrl, s.audioUrl AS audioUrl, "
+            + "s.externalSource AS externalSource, sg.id AS singerId, sg.name AS singerName, s.createdAt AS createdAt "
+            + "FROM Song s LEFT JOIN s.singer sg WHERE s.id < :beforeId ORDER BY s.id DESC")
+    List<SongSummary> findSummariesBefore(Long beforeId, Pageable pageable);
+    
+    /**
+     * 渲染抓取计划：与详情相同，合成参数需要片段的技巧和情绪
+     */
+    @EntityGraph(attributePaths = {"singer", "singingConfig", "segments", "segments.technique", "segments.emotion"})
+    @Query("SELECT s FROM Song s WHERE s.id = :id")
+    Song findByIdForRender(Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Song s SET s.audioUrl = :audioUrl, s.updatedAt = CURRENT_TIMESTAMP WHERE s.id = :id")
+    int updateAudioUrl(Long id, String audioUrl);
 }
@@ -1,8 +1,12 @@
 package com.aisinger.repository;
 
+import com.aisinger.dto.UsageCount;
 import com.aisinger.entity.SongTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,4 +18,12 @@ public interface SongTemplateRepository extends JpaRepository<SongTemplate, Long
     List<SongTemplate> findByCategoryAndEnabledTrue(String category);
     
     List<SongTemplate> findTop10ByEnabledTrueOrderByUseCountDesc();
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE SongTemplate t SET t.useCount = COALESCE(t.useCount, 0) + :delta WHERE t.id = :id")
+    int addUseCount(Long id, int delta);
+    
+    @Query("SELECT t.id AS id, COALESCE(t.useCount, 0) AS total FROM SongTemplate t WHERE t.enabled = true")
+    List<UsageCount> findEnabledUseCounts();
 }
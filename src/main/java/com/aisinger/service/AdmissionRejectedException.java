@@ -0,0 +1,12 @@
+package com.aisinger.service;
+
+/**
+ * 提供商准入被拒绝（排队已满或等待超时）
+ * 与提供商本身的调用失败区分：不计入熔断统计
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
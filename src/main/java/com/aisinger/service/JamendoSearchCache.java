@@ -0,0 +1,221 @@
+package com.aisinger.service;
+
+import com.aisinger.config.JamendoProperties;
+import com.aisinger.dto.JamendoTrackDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Jamendo搜索结果缓存
+ * 以规范化后的请求URL为键缓存搜索结果（内存LRU）：新鲜期内直接返回；
+ * 过期后的容忍期内先返回旧结果并在后台刷新；相同查询并发未命中时只请求一次Jamendo
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JamendoSearchCache {
+    
+    private static final Pattern CLIENT_ID_PARAM = Pattern.compile("([?&]client_id=)[^&]*");
+    
+    private final JamendoProperties jamendoProperties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, CompletableFuture<List<JamendoTrackDTO>>> inFlight = new ConcurrentHashMap<>();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    
+    private Map<String, Entry> memory;
+    private ExecutorService refresher;
+    
+    @PostConstruct
+    public void init() {
+        int maxEntries = Math.max(1, jamendoProperties.getCache().getMaxEntries());
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        
+        // 后台刷新线程：同一查询同时只有一个刷新任务，线程数不必多
+        AtomicInteger counter = new AtomicInteger();
+        refresher = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "jamendo-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        registerCounter("hit", hits);
+        registerCounter("stale_hit", staleHits);
+        registerCounter("miss", misses);
+        registerCounter("shared", shared);
+        FunctionCounter.builder("aisinger.jamendo.cache.refresh.failures", refreshFailures, AtomicLong::get)
+                .description("Jamendo搜索缓存后台刷新失败次数").register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+    
+    private void registerCounter(String result, AtomicLong counter) {
+        FunctionCounter.builder("aisinger.jamendo.cache.requests", counter, AtomicLong::get)
+                .description("Jamendo搜索缓存查询次数").tag("result", result).register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return jamendoProperties.getCache().isEnabled();
+    }
+    
+    /**
+     * 通过缓存获取搜索结果
+     * 加载失败时异常抛给调用方且不写入缓存；后台刷新失败时保留旧结果直到容忍期结束
+     *
+     * @param key    规范化后的请求URL
+     * @param loader 实际的Jamendo请求
+     */
+    public List<JamendoTrackDTO> get(String key, Supplier<List<JamendoTrackDTO>> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry != null) {
+            if (now < entry.freshUntil()) {
+                hits.incrementAndGet();
+                return entry.tracks();
+            }
+            if (now < entry.staleUntil()) {
+                staleHits.incrementAndGet();
+                refreshAsync(key, loader);
+                return entry.tracks();
+            }
+        }
+        
+        // 相同查询正在加载时等待其结果
+        CompletableFuture<List<JamendoTrackDTO>> flight = new CompletableFuture<>();
+        CompletableFuture<List<JamendoTrackDTO>> pending = inFlight.putIfAbsent(key, flight);
+        if (pending != null) {
+            shared.incrementAndGet();
+            return await(pending);
+        }
+        misses.incrementAndGet();
+        load(key, loader, flight);
+        return await(flight);
+    }
+    
+    /**
+     * 后台刷新；该查询已有加载或刷新在进行时不重复提交
+     */
+    private void refreshAsync(String key, Supplier<List<JamendoTrackDTO>> loader) {
+        CompletableFuture<List<JamendoTrackDTO>> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(key, loader, flight);
+                } catch (RuntimeException e) {
+                    refreshFailures.incrementAndGet();
+                    log.warn("Jamendo搜索缓存后台刷新失败，继续返回旧结果: {}", redact(key));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.cancel(false);
+        }
+    }
+    
+    /**
+     * 去掉缓存键（请求URL）中的 client_id 后再写日志
+     */
+    private static String redact(String key) {
+        return CLIENT_ID_PARAM.matcher(key).replaceAll("$1***");
+    }
+    
+    private void load(String key, Supplier<List<JamendoTrackDTO>> loader, CompletableFuture<List<JamendoTrackDTO>> flight) {
+        try {
+            List<JamendoTrackDTO> tracks = List.copyOf(loader.get());
+            put(key, tracks);
+            flight.complete(tracks);
+        } catch (Throwable e) {
+            // 任何失败（包括Error）都要结束本次加载，否则等待同一查询的请求会一直阻塞
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    private List<JamendoTrackDTO> await(CompletableFuture<List<JamendoTrackDTO>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private void put(String key, List<JamendoTrackDTO> tracks) {
+        JamendoProperties.CacheConfig cache = jamendoProperties.getCache();
+        long freshUntil = System.currentTimeMillis() + cache.getTtlSeconds() * 1000L;
+        long staleUntil = freshUntil + cache.getStaleSeconds() * 1000L;
+        synchronized (memory) {
+            memory.put(key, new Entry(tracks, freshUntil, staleUntil));
+        }
+    }
+    
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("sharedInFlight", shared.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        stats.put("inFlight", inFlight.size());
+        synchronized (memory) {
+            stats.put("entries", memory.size());
+        }
+        return stats;
+    }
+    
+    private record Entry(List<JamendoTrackDTO> tracks, long freshUntil, long staleUntil) {
+    }
+}
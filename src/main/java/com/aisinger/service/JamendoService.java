@@ -1,23 +1,25 @@
 package com.aisinger.service;
 
+import com.aisinger.config.AppMetrics;
 import com.aisinger.config.JamendoProperties;
+import com.aisinger.config.OutboundHttpClients;
 import com.aisinger.dto.JamendoResponse;
 import com.aisinger.dto.JamendoSearchRequest;
 import com.aisinger.dto.JamendoTrackDTO;
 import com.aisinger.entity.JamendoConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -34,10 +36,10 @@ public class JamendoService {
     private final JamendoProperties properties; // YAML兜底配置
     @Lazy
     private final JamendoConfigService jamendoConfigService;
+    private final OutboundHttpClients outboundHttpClients;
+    private final AppMetrics appMetrics;
+    private final JamendoSearchCache jamendoSearchCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
     
     /**
      * 获取有效配置（数据库优先，YAML兜底）
@@ -133,33 +135,7 @@ public class JamendoService {
             }
             
             String url = builder.build().toUriString();
-            log.debug("Jamendo API请求: {}", url);
-            
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Accept", "application/json")
-                    .GET()
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                JamendoResponse<JamendoTrackDTO> jamendoResponse = objectMapper.readValue(
-                        response.body(),
-                        new TypeReference<JamendoResponse<JamendoTrackDTO>>() {}
-                );
-                
-                if ("success".equals(jamendoResponse.getHeaders().getStatus())) {
-                    log.info("Jamendo搜索成功，返回 {} 首歌曲", jamendoResponse.getResults().size());
-                    return jamendoResponse.getResults();
-                } else {
-                    log.error("Jamendo API错误: {}", jamendoResponse.getHeaders().getErrorMessage());
-                    return Collections.emptyList();
-                }
-            } else {
-                log.error("Jamendo API请求失败，状态码: {}", response.statusCode());
-                return Collections.emptyList();
-            }
+            return jamendoSearchCache.get(url, () -> fetchTracks(url, config));
             
         } catch (Exception e) {
             log.error("Jamendo API调用异常", e);
@@ -167,6 +143,36 @@ public class JamendoService {
         }
     }
     
+    /**
+     * 请求Jamendo搜索接口；非200或接口返回错误时抛出异常，避免失败结果进入缓存
+     */
+    private List<JamendoTrackDTO> fetchTracks(String url, JamendoConfig config) {
+        log.debug("Jamendo API请求: {}", url);
+        
+        ResponseEntity<String> response = fetch("search", url, config);
+        if (response.getStatusCode().value() != 200) {
+            log.error("Jamendo API请求失败，状态码: {}", response.getStatusCode().value());
+            throw new RuntimeException("Jamendo API请求失败，状态码: " + response.getStatusCode().value());
+        }
+        
+        JamendoResponse<JamendoTrackDTO> jamendoResponse;
+        try {
+            jamendoResponse = objectMapper.readValue(
+                    response.getBody(),
+                    new TypeReference<JamendoResponse<JamendoTrackDTO>>() {}
+            );
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Jamendo响应解析失败: " + e.getMessage(), e);
+        }
+        
+        if (!"success".equals(jamendoResponse.getHeaders().getStatus())) {
+            log.error("Jamendo API错误: {}", jamendoResponse.getHeaders().getErrorMessage());
+            throw new RuntimeException("Jamendo API错误: " + jamendoResponse.getHeaders().getErrorMessage());
+        }
+        log.info("Jamendo搜索成功，返回 {} 首歌曲", jamendoResponse.getResults().size());
+        return jamendoResponse.getResults();
+    }
+    
     /**
      * 获取热门歌曲
      */
@@ -252,17 +258,11 @@ public class JamendoService {
                     .build()
                     .toUriString();
             
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Accept", "application/json")
-                    .GET()
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            ResponseEntity<String> response = fetch("track", url, config);
             
-            if (response.statusCode() == 200) {
+            if (response.getStatusCode().value() == 200) {
                 JamendoResponse<JamendoTrackDTO> jamendoResponse = objectMapper.readValue(
-                        response.body(),
+                        response.getBody(),
                         new TypeReference<JamendoResponse<JamendoTrackDTO>>() {}
                 );
                 
@@ -279,6 +279,35 @@ public class JamendoService {
         }
     }
     
+    /**
+     * 通过共享连接池发起GET请求并记录耗时，非2xx状态码同样返回响应由调用方处理
+     */
+    private ResponseEntity<String> fetch(String operation, String url, JamendoConfig config) {
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<String> response = outboundHttpClients.webClient("jamendo", config.getTimeoutSeconds())
+                    .get()
+                    .uri(URI.create(url))
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .onStatus(status -> true, r -> Mono.empty())
+                    .toEntity(String.class)
+                    .block();
+            boolean ok = response != null && response.getStatusCode().is2xxSuccessful();
+            appMetrics.recordJamendo(operation, System.nanoTime() - start,
+                    ok ? AppMetrics.OUTCOME_SUCCESS : AppMetrics.OUTCOME_ERROR);
+            if (!ok) {
+                appMetrics.recordError("jamendo", operation,
+                        response != null ? "http_" + response.getStatusCode().value() : "empty_response");
+            }
+            return response;
+        } catch (RuntimeException e) {
+            appMetrics.recordJamendo(operation, System.nanoTime() - start, AppMetrics.OUTCOME_ERROR);
+            appMetrics.recordError("jamendo", operation, AppMetrics.causeOf(e));
+            throw e;
+        }
+    }
+    
     /**
      * 获取可用的流派列表
      */
@@ -315,7 +344,8 @@ public class JamendoService {
             "apiUrl", config.getApiUrl() != null ? config.getApiUrl() : "https://api.jamendo.com/v3.0",
             "audioFormat", config.getAudioFormat() != null ? config.getAudioFormat() : "mp32",
             "commercialOnly", Boolean.TRUE.equals(config.getCommercialOnly()),
-            "configSource", config.getId() != null ? "database" : "yaml"
+            "configSource", config.getId() != null ? "database" : "yaml",
+            "cache", jamendoSearchCache.getStats()
         );
     }
 }
@@ -0,0 +1,253 @@
+package com.aisinger.service;
+
+import com.aisinger.config.LlmProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LLM提供商熔断器
+ * 每个提供商一个熔断器，按最近N次调用的失败率和慢调用率判定：
+ * 关闭 -> 超过阈值后打开（直接拒绝调用）-> 熔断时间到后半开（放行少量探测调用）-> 探测全部成功后关闭，任一失败重新打开
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LlmCircuitBreakers {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final LlmProperties llmProperties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+    
+    /**
+     * 申请调用许可；熔断打开或半开探测名额已满时返回false
+     */
+    public boolean tryAcquire(String provider) {
+        if (!llmProperties.getBreaker().isEnabled()) {
+            return true;
+        }
+        return breakerOf(provider).tryAcquire();
+    }
+    
+    /**
+     * 记录一次成功调用，耗时达到慢调用阈值时计为慢调用
+     *
+     * @param timeoutSeconds 本次调用的提供商超时时间，用于推算慢调用阈值（为空时按60秒）
+     */
+    public void onSuccess(String provider, Duration latency, Integer timeoutSeconds) {
+        if (llmProperties.getBreaker().isEnabled()) {
+            breakerOf(provider).onResult(false, latency.toMillis() >= slowCallMs(timeoutSeconds), null);
+        }
+    }
+    
+    /**
+     * 慢调用阈值：配置了固定值时使用固定值，否则取提供商超时时间的一定比例，
+     * 避免生成整首歌词这类本身就要几十秒的正常调用被记为慢调用而误熔断
+     */
+    private long slowCallMs(Integer timeoutSeconds) {
+        LlmProperties.BreakerConfig config = llmProperties.getBreaker();
+        if (config.getSlowCallMs() > 0) {
+            return config.getSlowCallMs();
+        }
+        long timeoutMs = (timeoutSeconds != null && timeoutSeconds > 0 ? timeoutSeconds : 60) * 1000L;
+        return (long) (timeoutMs * config.getSlowCallTimeoutRatio());
+    }
+    
+    public void onError(String provider, Throwable error) {
+        if (llmProperties.getBreaker().isEnabled()) {
+            breakerOf(provider).onResult(true, false, error.getMessage());
+        }
+    }
+    
+    /**
+     * 调用被取消（如对冲请求中落败的一方），只归还半开探测名额，不计入统计
+     */
+    public void onCancel(String provider) {
+        if (llmProperties.getBreaker().isEnabled()) {
+            breakerOf(provider).onCancel();
+        }
+    }
+    
+    public State getState(String provider) {
+        Breaker breaker = breakers.get(key(provider));
+        return breaker != null ? breaker.currentState() : State.CLOSED;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> providers = new HashMap<>();
+        breakers.forEach((provider, breaker) -> providers.put(provider, breaker.snapshot()));
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", llmProperties.getBreaker().isEnabled());
+        stats.put("providers", providers);
+        return stats;
+    }
+    
+    private Breaker breakerOf(String provider) {
+        return breakers.computeIfAbsent(key(provider), this::newBreaker);
+    }
+    
+    /**
+     * 新建熔断器并注册状态指标（0=关闭，1=打开，2=半开）
+     */
+    private Breaker newBreaker(String provider) {
+        Breaker breaker = new Breaker(provider);
+        Gauge.builder("aisinger.llm.breaker.state", breaker, b -> b.currentState().ordinal())
+                .description("LLM熔断器状态：0=关闭，1=打开，2=半开")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        return breaker;
+    }
+    
+    private static String key(String provider) {
+        return provider != null ? provider.toLowerCase() : "unknown";
+    }
+    
+    /**
+     * 单个提供商的熔断器（滚动窗口为固定容量的环形数组）
+     */
+    private class Breaker {
+        
+        private final String provider;
+        private final boolean[] failures;
+        private final boolean[] slowCalls;
+        private int next;
+        private int count;
+        
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int halfOpenPermits;
+        private int halfOpenSuccesses;
+        private long rejected;
+        private String lastError;
+        
+        Breaker(String provider) {
+            this.provider = provider;
+            int windowSize = Math.max(1, llmProperties.getBreaker().getWindowSize());
+            this.failures = new boolean[windowSize];
+            this.slowCalls = new boolean[windowSize];
+        }
+        
+        synchronized boolean tryAcquire() {
+            LlmProperties.BreakerConfig config = llmProperties.getBreaker();
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= config.getOpenSeconds() * 1000L) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits < config.getHalfOpenCalls()) {
+                halfOpenPermits++;
+                return true;
+            }
+            rejected++;
+            return false;
+        }
+        
+        synchronized void onResult(boolean failed, boolean slow, String error) {
+            if (failed) {
+                lastError = error;
+            }
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits = Math.max(0, halfOpenPermits - 1);
+                if (failed) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= llmProperties.getBreaker().getHalfOpenCalls()) {
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // 熔断前已发出的调用，结果不再影响状态
+                return;
+            }
+            
+            failures[next] = failed;
+            slowCalls[next] = slow;
+            next = (next + 1) % failures.length;
+            count = Math.min(count + 1, failures.length);
+            
+            LlmProperties.BreakerConfig config = llmProperties.getBreaker();
+            if (count >= config.getMinimumCalls()
+                    && (failureRate() >= config.getFailureRateThreshold()
+                        || slowCallRate() >= config.getSlowCallRateThreshold())) {
+                transitionTo(State.OPEN);
+            }
+        }
+        
+        synchronized void onCancel() {
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits = Math.max(0, halfOpenPermits - 1);
+            }
+        }
+        
+        synchronized State currentState() {
+            return state;
+        }
+        
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("state", state.name());
+            info.put("calls", count);
+            info.put("failureRate", failureRate());
+            info.put("slowCallRate", slowCallRate());
+            info.put("rejected", rejected);
+            info.put("lastError", lastError);
+            if (state == State.OPEN) {
+                long remainingMs = llmProperties.getBreaker().getOpenSeconds() * 1000L - (System.currentTimeMillis() - openedAt);
+                info.put("retryInMs", Math.max(0, remainingMs));
+            }
+            return info;
+        }
+        
+        private double failureRate() {
+            return rate(failures);
+        }
+        
+        private double slowCallRate() {
+            return rate(slowCalls);
+        }
+        
+        private double rate(boolean[] outcomes) {
+            if (count == 0) {
+                return 0.0;
+            }
+            int hits = 0;
+            for (int i = 0; i < count; i++) {
+                if (outcomes[i]) {
+                    hits++;
+                }
+            }
+            return hits * 100.0 / count;
+        }
+        
+        private void transitionTo(State target) {
+            if (state == target) {
+                return;
+            }
+            log.warn("LLM熔断器状态变化: {} {} -> {}", provider, state, target);
+            state = target;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+            if (target == State.OPEN) {
+                openedAt = System.currentTimeMillis();
+            }
+            if (target == State.CLOSED) {
+                next = 0;
+                count = 0;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -37,6 +38,18 @@ public class LlmConfigService {
         return llmConfigRepository.findByEnabledTrueOrderBySortOrderAsc();
     }
     
+    /**
+     * 获取主配置之外可用于故障转移/对冲的启用配置（按排序，需已配置API Key）
+     */
+    public List<LlmConfig> getFailoverConfigs(LlmConfig primary) {
+        return getEnabledConfigs().stream()
+                .filter(config -> primary.getId() == null || !primary.getId().equals(config.getId()))
+                .filter(config -> !config.getProvider().equalsIgnoreCase(primary.getProvider())
+                        || !Objects.equals(config.getModelName(), primary.getModelName()))
+                .filter(config -> config.getApiKey() != null && !config.getApiKey().isEmpty())
+                .toList();
+    }
+    
     /**
      * 根据ID获取配置
      */
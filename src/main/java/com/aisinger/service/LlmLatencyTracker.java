@@ -0,0 +1,129 @@
+package com.aisinger.service;
+
+import com.aisinger.config.LlmProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LLM调用延迟统计
+ * 按提供商保留最近一批调用的耗时，用其百分位决定对冲请求的等待时间；
+ * 失败和被取消的调用按已等待的时间记为下限样本，慢提供商的尾部延迟不会因为只统计成功调用而被低估
+ */
+@Component
+@RequiredArgsConstructor
+public class LlmLatencyTracker {
+    
+    private final LlmProperties llmProperties;
+    
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    
+    private final AtomicLong hedgesFired = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    
+    /**
+     * 记录一次成功调用的耗时
+     */
+    public void record(String provider, Duration latency) {
+        windowOf(provider).add(latency.toMillis());
+    }
+    
+    /**
+     * 记录一次未正常返回（失败或被取消）的调用：真实耗时至少为已等待的时间，按该值记为一个样本
+     */
+    public void recordAtLeast(String provider, Duration elapsed) {
+        windowOf(provider).add(elapsed.toMillis());
+    }
+    
+    /**
+     * 主提供商的对冲等待时间：样本足够时取配置的延迟百分位（不低于下限）；
+     * 样本不足时返回空，此时不发起对冲，避免冷启动阶段几乎每次调用都被对冲
+     */
+    public Optional<Duration> hedgeDelay(String provider) {
+        LlmProperties.HedgeConfig config = llmProperties.getHedge();
+        Window window = windows.get(key(provider));
+        if (window == null || window.size() < config.getMinSamples()) {
+            return Optional.empty();
+        }
+        long percentile = window.percentile(config.getPercentile());
+        return Optional.of(Duration.ofMillis(Math.max(config.getMinDelayMs(), percentile)));
+    }
+    
+    public void recordHedgeFired() {
+        hedgesFired.incrementAndGet();
+    }
+    
+    public void recordHedgeWon() {
+        hedgesWon.incrementAndGet();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> providers = new HashMap<>();
+        windows.forEach((provider, window) -> {
+            Map<String, Object> info = new HashMap<>();
+            info.put("samples", window.size());
+            info.put("p50Ms", window.percentile(50));
+            info.put("p95Ms", window.percentile(95));
+            info.put("p99Ms", window.percentile(99));
+            info.put("hedgeDelayMs", hedgeDelay(provider).map(Duration::toMillis).orElse(null));
+            providers.put(provider, info);
+        });
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", llmProperties.getHedge().isEnabled());
+        stats.put("hedgesFired", hedgesFired.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        stats.put("providers", providers);
+        return stats;
+    }
+    
+    private Window windowOf(String provider) {
+        return windows.computeIfAbsent(key(provider),
+                k -> new Window(Math.max(1, llmProperties.getHedge().getWindowSize())));
+    }
+    
+    private static String key(String provider) {
+        return provider != null ? provider.toLowerCase() : "unknown";
+    }
+    
+    /**
+     * 固定容量的环形样本窗口
+     */
+    private static class Window {
+        
+        private final long[] samples;
+        private int next;
+        private int count;
+        
+        Window(int capacity) {
+            samples = new long[capacity];
+        }
+        
+        synchronized void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+        
+        synchronized int size() {
+            return count;
+        }
+        
+        synchronized long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.aisinger.service;
+
+import com.aisinger.config.LlmProperties;
+import com.aisinger.entity.LlmConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * LLM响应缓存
+ * 以提供商 + 模型 + 温度 + 规范化后提示词的哈希为键缓存LLM原始输出（内存LRU，带有效期）；
+ * 复用模式下直接返回缓存响应，否则仍会重新生成，但并发中的相同请求只调用一次LLM；
+ * 熔断切换或对冲由其他配置给出响应时，响应缓存在实际作答的配置下
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LlmResponseCache {
+    
+    private final LlmProperties llmProperties;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    
+    private Map<String, Entry> memory;
+    
+    @PostConstruct
+    public void init() {
+        int maxEntries = Math.max(1, llmProperties.getCache().getMaxEntries());
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        
+        FunctionCounter.builder("aisinger.llm.cache.requests", hits, AtomicLong::get)
+                .description("LLM响应缓存查询次数").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("aisinger.llm.cache.requests", misses, AtomicLong::get)
+                .description("LLM响应缓存查询次数").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("aisinger.llm.cache.requests", shared, AtomicLong::get)
+                .description("LLM响应缓存查询次数").tag("result", "shared").register(meterRegistry);
+        Gauge.builder("aisinger.llm.cache.hit.ratio", this, LlmResponseCache::hitRatio)
+                .description("LLM响应缓存累计命中率").register(meterRegistry);
+    }
+    
+    private double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+    
+    public boolean isEnabled() {
+        return llmProperties.getCache().isEnabled();
+    }
+    
+    /**
+     * 请求是否复用缓存响应：请求显式指定时以请求为准，否则使用配置默认值
+     */
+    public boolean shouldReuse(Boolean reuse) {
+        return reuse != null ? reuse : llmProperties.getCache().isReuseByDefault();
+    }
+    
+    /**
+     * 通过缓存调用LLM
+     *
+     * @param config 当前LLM配置（提供商、模型、温度参与缓存键）
+     * @param prompt 完整提示词
+     * @param reuse  是否复用未过期的缓存响应
+     * @param call   实际的LLM调用，返回响应及实际作答的配置
+     */
+    public Mono<String> get(LlmConfig config, String prompt, boolean reuse, Supplier<Mono<Answer>> call) {
+        if (!isEnabled()) {
+            return call.get().map(Answer::response);
+        }
+        String key = keyOf(config, prompt);
+        if (reuse) {
+            Optional<String> cached = lookup(key);
+            if (cached.isPresent()) {
+                hits.incrementAndGet();
+                log.info("命中LLM响应缓存: {} ({})", config.getProvider(), config.getModelName());
+                return Mono.just(cached.get());
+            }
+        }
+        
+        // 相同请求正在生成时直接共享其结果
+        Mono<String> pending = inFlight.get(key);
+        if (pending != null) {
+            shared.incrementAndGet();
+            return pending;
+        }
+        misses.incrementAndGet();
+        return inFlight.computeIfAbsent(key, k -> call.get()
+                .doOnNext(answer -> put(keyOf(answer.config(), prompt), answer.response()))
+                .map(Answer::response)
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+    
+    /**
+     * 查找未过期的缓存响应
+     */
+    public Optional<String> lookup(LlmConfig config, String prompt) {
+        return isEnabled() ? lookup(keyOf(config, prompt)) : Optional.empty();
+    }
+    
+    /**
+     * 写入一次完整的LLM响应（流式生成结束后调用）
+     */
+    public void put(LlmConfig config, String prompt, String response) {
+        if (isEnabled()) {
+            put(keyOf(config, prompt), response);
+        }
+    }
+    
+    /**
+     * 计算缓存键：提供商|模型|温度|规范化提示词 的SHA-256
+     */
+    public String keyOf(LlmConfig config, String prompt) {
+        String canonical = String.join("|",
+                String.valueOf(config.getProvider()).toLowerCase(Locale.ROOT),
+                String.valueOf(config.getModelName()),
+                String.valueOf(config.getTemperature() != null ? config.getTemperature() : 0.8),
+                normalize(prompt));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+    
+    /**
+     * 提示词规范化：全角/半角统一（NFKC）、连续空白合并为一个空格、英文字母转小写，
+     * 使仅在空格、标点宽度或大小写上不同的输入命中同一缓存
+     */
+    static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+    
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("sharedInFlight", shared.get());
+        stats.put("hitRatio", hitRatio());
+        stats.put("inFlight", inFlight.size());
+        synchronized (memory) {
+            stats.put("entries", memory.size());
+        }
+        return stats;
+    }
+    
+    private Optional<String> lookup(String key) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                memory.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.response());
+        }
+    }
+    
+    private void put(String key, String response) {
+        if (response == null || response.isBlank()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + llmProperties.getCache().getTtlSeconds() * 1000L;
+        synchronized (memory) {
+            memory.put(key, new Entry(response, expiresAt));
+        }
+    }
+    
+    private record Entry(String response, long expiresAt) {
+    }
+    
+    /**
+     * 一次LLM调用的响应及实际作答的配置
+     */
+    public record Answer(LlmConfig config, String response) {
+    }
+}
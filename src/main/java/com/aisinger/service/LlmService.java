@@ -1,27 +1,37 @@
 package com.aisinger.service;
 
+import com.aisinger.config.AppMetrics;
 import com.aisinger.config.LlmProperties;
+import com.aisinger.config.OutboundHttpClients;
 import com.aisinger.dto.LyricsGenerateRequest;
 import com.aisinger.dto.LyricsGenerateResponse;
+import com.aisinger.dto.LyricsStreamEvent;
 import com.aisinger.dto.SingerGenerateRequest;
 import com.aisinger.dto.SingerGenerateResponse;
 import com.aisinger.entity.LlmConfig;
 import com.aisinger.entity.Singer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * LLM服务 - 支持多个LLM提供商（通义千问、OpenAI、Gemini）
@@ -32,9 +42,17 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class LlmService {
     
-    private final WebClient.Builder webClientBuilder;
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+    
+    private final OutboundHttpClients outboundHttpClients;
     private final ObjectMapper objectMapper;
     private final LlmProperties llmProperties;
+    private final LlmResponseCache llmResponseCache;
+    private final LlmLatencyTracker llmLatencyTracker;
+    private final LlmCircuitBreakers llmCircuitBreakers;
+    private final ProviderAdmission providerAdmission;
+    private final AppMetrics appMetrics;
     @Lazy
     private final LlmConfigService llmConfigService;
     
@@ -42,23 +60,163 @@ public class LlmService {
      * 生成歌词
      */
     public LyricsGenerateResponse generateLyrics(LyricsGenerateRequest request) {
+        return generateLyricsAsync(request).block();
+    }
+    
+    /**
+     * 生成歌词（非阻塞）：LLM调用全程不占用调用线程，失败时回退到模板歌词
+     */
+    public Mono<LyricsGenerateResponse> generateLyricsAsync(LyricsGenerateRequest request) {
+        return generateLyricsOrError(request)
+                .onErrorResume(e -> {
+                    log.error("LLM调用失败: {}", e.getMessage(), e);
+                    return Mono.just(generateFallbackLyrics(request));
+                });
+    }
+    
+    /**
+     * 生成歌词（非阻塞），LLM调用失败时直接返回错误而不回退到模板歌词
+     */
+    public Mono<LyricsGenerateResponse> generateLyricsOrError(LyricsGenerateRequest request) {
         String prompt = buildPrompt(request);
+        boolean reuse = llmResponseCache.shouldReuse(request.getReuse());
         
-        try {
-            String response = callLlm(prompt);
-            return parseLyricsResponse(response, request);
-        } catch (Exception e) {
-            log.error("LLM调用失败: {}", e.getMessage(), e);
-            return generateFallbackLyrics(request);
-        }
+        return Mono.defer(() -> callLlm(prompt, reuse))
+                .map(response -> parseLyricsResponse(response, request));
     }
     
     /**
-     * 根据配置调用相应的LLM
+     * 根据配置调用相应的LLM（经过响应缓存）
      * 优先使用数据库配置，回退到YAML配置
+     *
+     * @param reuse 是否复用相同提示词未过期的缓存响应
      */
-    private String callLlm(String prompt) {
+    private Mono<String> callLlm(String prompt, boolean reuse) {
         LlmConfig activeConfig = llmConfigService.getActiveConfig();
+        return llmResponseCache.get(activeConfig, prompt, reuse, () -> callWithFailover(prompt, activeConfig));
+    }
+    
+    /**
+     * 按熔断状态选择提供商：激活配置熔断时按排序顺延到下一个启用配置，不等待超时；
+     * 全部熔断时直接失败，由调用方使用本地备用结果
+     */
+    private Mono<LlmResponseCache.Answer> callWithFailover(String prompt, LlmConfig activeConfig) {
+        List<LlmConfig> candidates = candidatesFor(activeConfig);
+        int primaryIndex = acquireFirst(candidates, 0);
+        if (primaryIndex < 0) {
+            return Mono.error(new RuntimeException("所有LLM提供商均处于熔断状态"));
+        }
+        LlmConfig primary = candidates.get(primaryIndex);
+        if (primaryIndex > 0) {
+            log.warn("LLM {} 已熔断，切换到 {}", activeConfig.getProvider(), primary.getProvider());
+        }
+        return callHedged(prompt, primary, candidates.subList(primaryIndex + 1, candidates.size()));
+    }
+    
+    /**
+     * 激活配置在前，其余可用配置按排序在后
+     */
+    private List<LlmConfig> candidatesFor(LlmConfig activeConfig) {
+        List<LlmConfig> candidates = new ArrayList<>();
+        candidates.add(activeConfig);
+        candidates.addAll(llmConfigService.getFailoverConfigs(activeConfig));
+        return candidates;
+    }
+    
+    /**
+     * 从指定位置起取第一个熔断器放行的配置，返回其下标；都不放行时返回-1
+     */
+    private int acquireFirst(List<LlmConfig> candidates, int from) {
+        for (int i = from; i < candidates.size(); i++) {
+            if (llmCircuitBreakers.tryAcquire(candidates.get(i).getProvider())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 对冲调用：主提供商在其历史延迟百分位内未返回时，向下一个熔断器放行的备用配置发起同样的请求，
+     * 先得到有效响应的一方胜出，另一方被取消；未启用对冲或没有可用备用配置时只调用主提供商
+     */
+    private Mono<LlmResponseCache.Answer> callHedged(String prompt, LlmConfig primary, List<LlmConfig> backups) {
+        if (!llmProperties.getHedge().isEnabled() || backups.isEmpty()) {
+            return answeredBy(prompt, primary);
+        }
+        // 主提供商延迟样本不足时无法估计合理的等待时间，先不对冲
+        Optional<Duration> hedgeDelay = llmLatencyTracker.hedgeDelay(primary.getProvider());
+        if (hedgeDelay.isEmpty()) {
+            return answeredBy(prompt, primary);
+        }
+        
+        // 主提供商提前失败时不必等满对冲时间
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<LlmResponseCache.Answer> primaryCall = answeredBy(prompt, primary)
+                .doOnError(e -> primaryFailed.tryEmitEmpty());
+        
+        Duration delay = hedgeDelay.get();
+        Mono<LlmResponseCache.Answer> backupCall = Mono.firstWithSignal(Mono.delay(delay).then(), primaryFailed.asMono())
+                .then(Mono.defer(() -> {
+                    int backupIndex = acquireFirst(backups, 0);
+                    if (backupIndex < 0) {
+                        return Mono.error(new RuntimeException("没有可用的对冲LLM提供商"));
+                    }
+                    LlmConfig backupConfig = backups.get(backupIndex);
+                    log.info("LLM {} 在 {}ms 内未返回有效结果，对冲请求 {}",
+                            primary.getProvider(), delay.toMillis(), backupConfig.getProvider());
+                    llmLatencyTracker.recordHedgeFired();
+                    return answeredBy(prompt, backupConfig);
+                }))
+                .doOnNext(answer -> llmLatencyTracker.recordHedgeWon());
+        
+        return Mono.firstWithValue(primaryCall, backupCall);
+    }
+    
+    /**
+     * 调用指定配置并带上作答的配置，响应缓存在实际作答的配置下
+     */
+    private Mono<LlmResponseCache.Answer> answeredBy(String prompt, LlmConfig config) {
+        return timedCall(prompt, config).map(response -> new LlmResponseCache.Answer(config, response));
+    }
+    
+    /**
+     * 在准入许可内调用提供商，并记录耗时和熔断统计（调用前须已通过熔断器许可）；空响应视为失败
+     */
+    private Mono<String> timedCall(String prompt, LlmConfig config) {
+        Mono<String> call = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return callProvider(prompt, config)
+                    .filter(response -> !response.isBlank())
+                    .switchIfEmpty(Mono.error(new RuntimeException("LLM返回内容为空: " + config.getProvider())))
+                    .doOnNext(response -> {
+                        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+                        llmLatencyTracker.record(config.getProvider(), latency);
+                        llmCircuitBreakers.onSuccess(config.getProvider(), latency, config.getTimeoutSeconds());
+                        appMetrics.recordLlm(config.getProvider(), latency.toNanos(), AppMetrics.OUTCOME_SUCCESS);
+                    })
+                    .doOnError(e -> {
+                        llmLatencyTracker.recordAtLeast(config.getProvider(), Duration.ofNanos(System.nanoTime() - start));
+                        llmCircuitBreakers.onError(config.getProvider(), e);
+                        appMetrics.recordLlm(config.getProvider(), System.nanoTime() - start, AppMetrics.OUTCOME_ERROR);
+                        appMetrics.recordError("llm", config.getProvider(), AppMetrics.causeOf(e));
+                    })
+                    // 对冲落败或调用方放弃时被取消，真实耗时至少为已等待的时间
+                    .doOnCancel(() -> llmLatencyTracker.recordAtLeast(
+                            config.getProvider(), Duration.ofNanos(System.nanoTime() - start)));
+        });
+        // 排队等待准入许可的时间不计入延迟统计，准入被拒绝也不计为提供商失败
+        return providerAdmission.admitLlm(config.getProvider(), call)
+                .doOnError(AdmissionRejectedException.class, e -> {
+                    llmCircuitBreakers.onCancel(config.getProvider());
+                    appMetrics.recordError("llm", config.getProvider(), AppMetrics.OUTCOME_REJECTED);
+                })
+                .doOnCancel(() -> llmCircuitBreakers.onCancel(config.getProvider()));
+    }
+    
+    /**
+     * 调用指定配置的LLM提供商
+     */
+    private Mono<String> callProvider(String prompt, LlmConfig activeConfig) {
         String provider = activeConfig.getProvider().toLowerCase();
         log.info("使用LLM提供商: {} ({})", activeConfig.getDisplayName(), provider);
         
@@ -72,30 +230,18 @@ public class LlmService {
     /**
      * 调用阿里通义千问API（使用数据库配置）
      */
-    private String callQwenWithConfig(String prompt, LlmConfig config) {
+    private Mono<String> callQwenWithConfig(String prompt, LlmConfig config) {
         log.info("调用通义千问API，模型: {}", config.getModelName());
         
-        Double temperature = config.getTemperature() != null ? config.getTemperature() : 0.8;
-        Integer maxTokens = config.getMaxTokens() != null ? config.getMaxTokens() : 2000;
-        
-        Map<String, Object> requestBody = Map.of(
-            "model", config.getModelName(),
-            "messages", List.of(
-                Map.of("role", "system", "content", "你是一位专业的词曲创作人，擅长创作各种风格的歌词。请用中文回复。"),
-                Map.of("role", "user", "content", prompt)
-            ),
-            "temperature", temperature,
-            "max_tokens", maxTokens
-        );
-        
         int timeout = config.getTimeoutSeconds() != null ? config.getTimeoutSeconds() : 60;
-        return callOpenAICompatibleApi(config.getApiUrl(), config.getApiKey(), requestBody, timeout);
+        return callOpenAICompatibleApi(config.getProvider(), config.getApiUrl(), config.getApiKey(),
+                chatRequestBody(prompt, config), timeout);
     }
     
     /**
      * 调用阿里通义千问API（使用YAML配置 - 兜底）
      */
-    private String callQwen(String prompt) {
+    private Mono<String> callQwen(String prompt) {
         LlmProperties.ProviderConfig config = llmProperties.getQwen();
         log.info("调用通义千问API（YAML配置），模型: {}", config.getModel());
         
@@ -109,36 +255,24 @@ public class LlmService {
             "max_tokens", 2000
         );
         
-        return callOpenAICompatibleApi(config.getApiUrl(), config.getApiKey(), requestBody, 60);
+        return callOpenAICompatibleApi("qwen", config.getApiUrl(), config.getApiKey(), requestBody, 60);
     }
     
     /**
      * 调用OpenAI API（使用数据库配置）
      */
-    private String callOpenAIWithConfig(String prompt, LlmConfig config) {
+    private Mono<String> callOpenAIWithConfig(String prompt, LlmConfig config) {
         log.info("调用OpenAI API，模型: {}", config.getModelName());
         
-        Double temperature = config.getTemperature() != null ? config.getTemperature() : 0.8;
-        Integer maxTokens = config.getMaxTokens() != null ? config.getMaxTokens() : 2000;
-        
-        Map<String, Object> requestBody = Map.of(
-            "model", config.getModelName(),
-            "messages", List.of(
-                Map.of("role", "system", "content", "你是一位专业的词曲创作人，擅长创作各种风格的歌词。请用中文回复。"),
-                Map.of("role", "user", "content", prompt)
-            ),
-            "temperature", temperature,
-            "max_tokens", maxTokens
-        );
-        
         int timeout = config.getTimeoutSeconds() != null ? config.getTimeoutSeconds() : 60;
-        return callOpenAICompatibleApi(config.getApiUrl(), config.getApiKey(), requestBody, timeout);
+        return callOpenAICompatibleApi(config.getProvider(), config.getApiUrl(), config.getApiKey(),
+                chatRequestBody(prompt, config), timeout);
     }
     
     /**
      * 调用OpenAI API（使用YAML配置 - 兜底）
      */
-    private String callOpenAI(String prompt) {
+    private Mono<String> callOpenAI(String prompt) {
         LlmProperties.ProviderConfig config = llmProperties.getOpenai();
         log.info("调用OpenAI API（YAML配置），模型: {}", config.getModel());
         
@@ -152,16 +286,17 @@ public class LlmService {
             "max_tokens", 2000
         );
         
-        return callOpenAICompatibleApi(config.getApiUrl(), config.getApiKey(), requestBody, 60);
+        return callOpenAICompatibleApi("openai", config.getApiUrl(), config.getApiKey(), requestBody, 60);
     }
     
     /**
      * 调用OpenAI兼容API（适用于OpenAI和通义千问）
      */
-    private String callOpenAICompatibleApi(String apiUrl, String apiKey, Map<String, Object> requestBody, int timeoutSeconds) {
-        WebClient webClient = webClientBuilder.build();
+    private Mono<String> callOpenAICompatibleApi(String provider, String apiUrl, String apiKey,
+                                                 Map<String, Object> requestBody, int timeoutSeconds) {
+        WebClient webClient = outboundHttpClients.webClient(provider, timeoutSeconds);
         
-        String response = webClient.post()
+        return webClient.post()
                 .uri(apiUrl)
                 .header("Authorization", "Bearer " + apiKey)
                 .header("Content-Type", "application/json")
@@ -170,8 +305,13 @@ public class LlmService {
                 .retrieve()
                 .bodyToMono(String.class)
                 .timeout(Duration.ofSeconds(timeoutSeconds))
-                .block();
-        
+                .map(this::parseOpenAICompatibleResponse);
+    }
+    
+    /**
+     * 解析OpenAI兼容API的响应
+     */
+    private String parseOpenAICompatibleResponse(String response) {
         log.debug("API响应: {}", response);
         
         try {
@@ -193,63 +333,31 @@ public class LlmService {
     /**
      * 调用Google Gemini API（使用数据库配置）
      */
-    private String callGeminiWithConfig(String prompt, LlmConfig config) {
+    private Mono<String> callGeminiWithConfig(String prompt, LlmConfig config) {
         log.info("调用Gemini API，模型: {}", config.getModelName());
         
-        Double temperature = config.getTemperature() != null ? config.getTemperature() : 0.8;
-        Integer maxTokens = config.getMaxTokens() != null ? config.getMaxTokens() : 2000;
         int timeout = config.getTimeoutSeconds() != null ? config.getTimeoutSeconds() : 60;
-        
-        // Gemini API格式
-        Map<String, Object> requestBody = Map.of(
-            "contents", List.of(
-                Map.of("parts", List.of(
-                    Map.of("text", "你是一位专业的词曲创作人，擅长创作各种风格的歌词。请用中文回复。\n\n" + prompt)
-                ))
-            ),
-            "generationConfig", Map.of(
-                "temperature", temperature,
-                "maxOutputTokens", maxTokens
-            )
-        );
+        Map<String, Object> requestBody = geminiRequestBody(prompt, config);
         
         // Gemini API URL格式: https://generativelanguage.googleapis.com/v1beta/models/{model}:generateContent?key={apiKey}
         String apiUrl = config.getApiUrl() + "/" + config.getModelName() + ":generateContent?key=" + config.getApiKey();
         
-        WebClient webClient = webClientBuilder.build();
+        WebClient webClient = outboundHttpClients.webClient(config.getProvider(), timeout);
         
-        String response = webClient.post()
+        return webClient.post()
                 .uri(apiUrl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(String.class)
                 .timeout(Duration.ofSeconds(timeout))
-                .block();
-        
-        log.debug("Gemini响应: {}", response);
-        
-        try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            
-            if (jsonNode.has("error")) {
-                String errorMsg = jsonNode.path("error").path("message").asText();
-                log.error("Gemini API错误: {}", errorMsg);
-                throw new RuntimeException("Gemini API错误: " + errorMsg);
-            }
-            
-            // Gemini响应格式
-            return jsonNode.path("candidates").get(0).path("content").path("parts").get(0).path("text").asText();
-        } catch (Exception e) {
-            log.error("解析Gemini响应失败", e);
-            throw new RuntimeException("解析Gemini响应失败", e);
-        }
+                .map(this::parseGeminiResponse);
     }
     
     /**
      * 调用Google Gemini API（使用YAML配置 - 兜底）
      */
-    private String callGemini(String prompt) {
+    private Mono<String> callGemini(String prompt) {
         LlmProperties.ProviderConfig config = llmProperties.getGemini();
         log.info("调用Gemini API（YAML配置），模型: {}", config.getModel());
         
@@ -269,16 +377,21 @@ public class LlmService {
         // Gemini API URL格式: https://generativelanguage.googleapis.com/v1beta/models/{model}:generateContent?key={apiKey}
         String apiUrl = config.getApiUrl() + "/" + config.getModel() + ":generateContent?key=" + config.getApiKey();
         
-        WebClient webClient = webClientBuilder.build();
+        WebClient webClient = outboundHttpClients.webClient("gemini", null);
         
-        String response = webClient.post()
+        return webClient.post()
                 .uri(apiUrl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(String.class)
-                .block();
-        
+                .map(this::parseGeminiResponse);
+    }
+    
+    /**
+     * 解析Gemini API的响应
+     */
+    private String parseGeminiResponse(String response) {
         log.debug("Gemini响应: {}", response);
         
         try {
@@ -298,6 +411,199 @@ public class LlmService {
         }
     }
     
+    /**
+     * OpenAI兼容接口的请求体（使用数据库配置的温度和最大Token数）
+     */
+    private Map<String, Object> chatRequestBody(String prompt, LlmConfig config) {
+        Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("model", config.getModelName());
+        requestBody.put("messages", List.of(
+            Map.of("role", "system", "content", "你是一位专业的词曲创作人，擅长创作各种风格的歌词。请用中文回复。"),
+            Map.of("role", "user", "content", prompt)
+        ));
+        requestBody.put("temperature", config.getTemperature() != null ? config.getTemperature() : 0.8);
+        requestBody.put("max_tokens", config.getMaxTokens() != null ? config.getMaxTokens() : 2000);
+        return requestBody;
+    }
+    
+    /**
+     * Gemini接口的请求体（使用数据库配置的温度和最大Token数）
+     */
+    private Map<String, Object> geminiRequestBody(String prompt, LlmConfig config) {
+        return Map.of(
+            "contents", List.of(
+                Map.of("parts", List.of(
+                    Map.of("text", "你是一位专业的词曲创作人，擅长创作各种风格的歌词。请用中文回复。\n\n" + prompt)
+                ))
+            ),
+            "generationConfig", Map.of(
+                "temperature", config.getTemperature() != null ? config.getTemperature() : 0.8,
+                "maxOutputTokens", config.getMaxTokens() != null ? config.getMaxTokens() : 2000
+            )
+        );
+    }
+    
+    /**
+     * 流式生成歌词：逐Token转发LLM输出，段落标记闭合时即推送解析好的段落，
+     * 最后推送与非流式接口一致的完整结果；调用失败时推送错误事件和备用歌词
+     */
+    public Flux<LyricsStreamEvent> streamLyrics(LyricsGenerateRequest request) {
+        String prompt = buildPrompt(request);
+        boolean reuse = llmResponseCache.shouldReuse(request.getReuse());
+        
+        return Flux.defer(() -> {
+            LlmConfig activeConfig = llmConfigService.getActiveConfig();
+            LyricsSectionParser parser = new LyricsSectionParser();
+            // 实际作答的配置，熔断切换时与激活配置不同；命中缓存时为空，不重复写入
+            AtomicReference<LlmConfig> answeredBy = new AtomicReference<>();
+            
+            // 复用模式下命中缓存时，整段缓存文本作为一个Token推送
+            Flux<String> deltas = (reuse ? llmResponseCache.lookup(activeConfig, prompt) : Optional.<String>empty())
+                    .map(Flux::just)
+                    .orElseGet(() -> streamWithFailover(prompt, activeConfig, answeredBy));
+            
+            Flux<LyricsStreamEvent> tokens = deltas
+                    .concatMapIterable(delta -> {
+                        List<LyricsStreamEvent> events = new ArrayList<>();
+                        events.add(LyricsStreamEvent.builder().type(LyricsStreamEvent.TOKEN).content(delta).build());
+                        events.addAll(parser.append(delta));
+                        return events;
+                    });
+            
+            Flux<LyricsStreamEvent> completion = Flux.defer(() -> {
+                if (parser.getText().isBlank()) {
+                    return Flux.error(new RuntimeException("LLM未返回任何内容"));
+                }
+                if (answeredBy.get() != null) {
+                    llmResponseCache.put(answeredBy.get(), prompt, parser.getText());
+                }
+                List<LyricsStreamEvent> events = new ArrayList<>(parser.finish());
+                events.add(LyricsStreamEvent.builder()
+                        .type(LyricsStreamEvent.DONE)
+                        .result(parseLyricsResponse(parser.getText(), request))
+                        .build());
+                return Flux.fromIterable(events);
+            });
+            
+            return tokens.concatWith(completion);
+        }).onErrorResume(e -> {
+            log.error("LLM流式调用失败: {}", e.getMessage(), e);
+            return Flux.just(
+                    LyricsStreamEvent.builder().type(LyricsStreamEvent.ERROR).content(e.getMessage()).build(),
+                    LyricsStreamEvent.builder().type(LyricsStreamEvent.DONE).result(generateFallbackLyrics(request)).build());
+        });
+    }
+    
+    /**
+     * 流式调用第一个熔断器放行的提供商，整个流完成才记为一次成功调用
+     *
+     * @param answeredBy 记录实际调用的配置
+     */
+    private Flux<String> streamWithFailover(String prompt, LlmConfig activeConfig, AtomicReference<LlmConfig> answeredBy) {
+        List<LlmConfig> candidates = candidatesFor(activeConfig);
+        int index = acquireFirst(candidates, 0);
+        if (index < 0) {
+            return Flux.error(new RuntimeException("所有LLM提供商均处于熔断状态"));
+        }
+        LlmConfig config = candidates.get(index);
+        answeredBy.set(config);
+        Flux<String> call = Flux.defer(() -> {
+            long start = System.nanoTime();
+            return streamLlm(prompt, config)
+                    .doOnComplete(() -> {
+                        long elapsed = System.nanoTime() - start;
+                        llmCircuitBreakers.onSuccess(config.getProvider(), Duration.ofNanos(elapsed),
+                                config.getTimeoutSeconds());
+                        appMetrics.recordLlm(config.getProvider(), elapsed, AppMetrics.OUTCOME_SUCCESS);
+                    })
+                    .doOnError(e -> {
+                        llmCircuitBreakers.onError(config.getProvider(), e);
+                        appMetrics.recordLlm(config.getProvider(), System.nanoTime() - start, AppMetrics.OUTCOME_ERROR);
+                        appMetrics.recordError("llm", config.getProvider(), AppMetrics.causeOf(e));
+                    });
+        });
+        return providerAdmission.admitLlmStream(config.getProvider(), call)
+                .doOnError(AdmissionRejectedException.class, e -> {
+                    llmCircuitBreakers.onCancel(config.getProvider());
+                    appMetrics.recordError("llm", config.getProvider(), AppMetrics.OUTCOME_REJECTED);
+                })
+                .doOnCancel(() -> llmCircuitBreakers.onCancel(config.getProvider()));
+    }
+    
+    /**
+     * 以流式模式调用LLM，按到达顺序返回增量文本
+     */
+    private Flux<String> streamLlm(String prompt, LlmConfig activeConfig) {
+        String provider = activeConfig.getProvider().toLowerCase();
+        log.info("流式调用LLM提供商: {} ({})", activeConfig.getDisplayName(), provider);
+        
+        int timeout = activeConfig.getTimeoutSeconds() != null ? activeConfig.getTimeoutSeconds() : 60;
+        WebClient webClient = outboundHttpClients.webClient(activeConfig.getProvider(), timeout);
+        
+        if ("gemini".equals(provider)) {
+            // Gemini流式接口: {model}:streamGenerateContent?alt=sse，每个事件是一个完整的响应片段
+            String apiUrl = activeConfig.getApiUrl() + "/" + activeConfig.getModelName()
+                    + ":streamGenerateContent?alt=sse&key=" + activeConfig.getApiKey();
+            return webClient.post()
+                    .uri(apiUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(geminiRequestBody(prompt, activeConfig))
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .timeout(Duration.ofSeconds(timeout))
+                    .mapNotNull(ServerSentEvent::data)
+                    .mapNotNull(this::parseGeminiDelta);
+        }
+        
+        Map<String, Object> requestBody = chatRequestBody(prompt, activeConfig);
+        requestBody.put("stream", true);
+        return webClient.post()
+                .uri(activeConfig.getApiUrl())
+                .header("Authorization", "Bearer " + activeConfig.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .timeout(Duration.ofSeconds(timeout))
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .mapNotNull(this::parseOpenAICompatibleDelta);
+    }
+    
+    /**
+     * 解析OpenAI兼容流式响应的一个片段，返回 choices[0].delta.content
+     */
+    private String parseOpenAICompatibleDelta(String chunk) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(chunk);
+            if (jsonNode.has("error")) {
+                throw new RuntimeException("API错误: " + jsonNode.path("error").path("message").asText());
+            }
+            JsonNode content = jsonNode.path("choices").path(0).path("delta").path("content");
+            return content.isTextual() && !content.asText().isEmpty() ? content.asText() : null;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("解析API流式响应失败", e);
+        }
+    }
+    
+    /**
+     * 解析Gemini流式响应的一个片段，返回 candidates[0].content.parts[0].text
+     */
+    private String parseGeminiDelta(String chunk) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(chunk);
+            if (jsonNode.has("error")) {
+                throw new RuntimeException("Gemini API错误: " + jsonNode.path("error").path("message").asText());
+            }
+            JsonNode text = jsonNode.path("candidates").path(0).path("content").path("parts").path(0).path("text");
+            return text.isTextual() && !text.asText().isEmpty() ? text.asText() : null;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("解析Gemini流式响应失败", e);
+        }
+    }
+    
     /**
      * 构建歌词生成提示词
      */
@@ -347,53 +653,42 @@ public class LlmService {
     /**
      * 解析LLM返回的歌词响应
      */
-    private LyricsGenerateResponse parseLyricsResponse(String response, LyricsGenerateRequest request) {
+    static LyricsGenerateResponse parseLyricsResponse(String response, LyricsGenerateRequest request) {
         List<LyricsGenerateResponse.LyricsSection> sections = new ArrayList<>();
         String title = "未命名歌曲";
         String suggestedStyle = request.getStyle();
         Integer suggestedBpm = 120;
         StringBuilder fullLyrics = new StringBuilder();
         
-        // 解析标题
-        Pattern titlePattern = Pattern.compile("【标题】(.+?)(?=\\n|$)");
-        Matcher titleMatcher = titlePattern.matcher(response);
-        if (titleMatcher.find()) {
-            title = titleMatcher.group(1).trim();
-        }
-        
-        // 解析BPM
-        Pattern bpmPattern = Pattern.compile("【BPM建议】(\\d+)");
-        Matcher bpmMatcher = bpmPattern.matcher(response);
-        if (bpmMatcher.find()) {
-            suggestedBpm = Integer.parseInt(bpmMatcher.group(1));
-        }
-        
-        // 解析风格
-        Pattern stylePattern = Pattern.compile("【风格建议】(.+?)(?=\\n|$)");
-        Matcher styleMatcher = stylePattern.matcher(response);
-        if (styleMatcher.find()) {
-            suggestedStyle = styleMatcher.group(1).trim();
-        }
-        
-        // 解析各段落
-        String[] sectionTypes = {"前奏", "主歌1", "主歌2", "主歌3", "副歌", "桥段", "尾声"};
-        String[] sectionTypeEn = {"intro", "verse", "verse", "verse", "chorus", "bridge", "outro"};
-        String[] suggestedEmotions = {"期待", "叙述", "深情", "激昂", "高潮", "转折", "回味"};
-        String[] suggestedTechniques = {"轻声", "自然", "颤音", "假声", "混声", "转音", "气声"};
-        
-        for (int i = 0; i < sectionTypes.length; i++) {
-            Pattern sectionPattern = Pattern.compile("【" + sectionTypes[i] + "】([\\s\\S]*?)(?=【|$)");
-            Matcher sectionMatcher = sectionPattern.matcher(response);
-            if (sectionMatcher.find()) {
-                String content = sectionMatcher.group(1).trim();
-                if (!content.isEmpty()) {
-                    sections.add(LyricsGenerateResponse.LyricsSection.builder()
-                            .type(sectionTypeEn[i])
-                            .content(content)
-                            .suggestedEmotion(suggestedEmotions[i])
-                            .suggestedTechnique(suggestedTechniques[i])
-                            .build());
-                    fullLyrics.append(content).append("\n\n");
+        // 单遍扫描【…】标记，段落按出现顺序收集（允许主歌N、预副歌、重复的副歌）
+        boolean titleSeen = false;
+        boolean styleSeen = false;
+        boolean bpmSeen = false;
+        for (LyricsStreamEvent event : LyricsSectionParser.parse(response)) {
+            switch (event.getType()) {
+                case LyricsStreamEvent.TITLE -> {
+                    if (!titleSeen) {
+                        title = event.getContent();
+                        titleSeen = true;
+                    }
+                }
+                case LyricsStreamEvent.STYLE -> {
+                    if (!styleSeen) {
+                        suggestedStyle = event.getContent();
+                        styleSeen = true;
+                    }
+                }
+                case LyricsStreamEvent.BPM -> {
+                    if (!bpmSeen) {
+                        suggestedBpm = parseBpm(event.getContent(), suggestedBpm);
+                        bpmSeen = true;
+                    }
+                }
+                case LyricsStreamEvent.SECTION -> {
+                    sections.add(event.getSection());
+                    fullLyrics.append(event.getSection().getContent()).append("\n\n");
+                }
+                default -> {
                 }
             }
         }
@@ -407,6 +702,14 @@ public class LlmService {
                 .build();
     }
     
+    private static Integer parseBpm(String digits, Integer defaultBpm) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return defaultBpm;
+        }
+    }
+    
     /**
      * 生成备用歌词（当LLM调用失败时）
      */
@@ -470,15 +773,22 @@ public class LlmService {
      * AI一键生成歌手
      */
     public SingerGenerateResponse generateSinger(SingerGenerateRequest request) {
+        return generateSingerAsync(request).block();
+    }
+    
+    /**
+     * 生成AI歌手配置（非阻塞）
+     */
+    public Mono<SingerGenerateResponse> generateSingerAsync(SingerGenerateRequest request) {
         String prompt = buildSingerPrompt(request);
-        
-        try {
-            String response = callLlm(prompt);
-            return parseSingerResponse(response, request);
-        } catch (Exception e) {
-            log.error("AI生成歌手失败: {}", e.getMessage(), e);
-            return generateFallbackSinger(request);
-        }
+        boolean reuse = llmResponseCache.shouldReuse(request.getReuse());
+        
+        return Mono.defer(() -> callLlm(prompt, reuse))
+                .map(response -> parseSingerResponse(response, request))
+                .onErrorResume(e -> {
+                    log.error("AI生成歌手失败: {}", e.getMessage(), e);
+                    return Mono.just(generateFallbackSinger(request));
+                });
     }
     
     /**
@@ -594,26 +904,30 @@ public class LlmService {
     /**
      * 从响应中提取JSON
      */
-    private String extractJson(String response) {
+    static String extractJson(String response) {
         // 尝试提取```json...```之间的内容
-        Pattern pattern = Pattern.compile("```json\\s*([\\s\\S]*?)```");
-        Matcher matcher = pattern.matcher(response);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        int fence = response.indexOf("```json");
+        if (fence >= 0) {
+            int end = response.indexOf("```", fence + 7);
+            if (end >= 0) {
+                return response.substring(fence + 7, end).trim();
+            }
         }
         
         // 尝试提取```...```之间的内容
-        pattern = Pattern.compile("```\\s*([\\s\\S]*?)```");
-        matcher = pattern.matcher(response);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
+        fence = response.indexOf("```");
+        if (fence >= 0) {
+            int end = response.indexOf("```", fence + 3);
+            if (end >= 0) {
+                return response.substring(fence + 3, end).trim();
+            }
         }
         
         // 尝试提取{...}
-        pattern = Pattern.compile("\\{[\\s\\S]*\\}");
-        matcher = pattern.matcher(response);
-        if (matcher.find()) {
-            return matcher.group(0);
+        int open = response.indexOf('{');
+        int close = response.lastIndexOf('}');
+        if (open >= 0 && close > open) {
+            return response.substring(open, close + 1);
         }
         
         return response;
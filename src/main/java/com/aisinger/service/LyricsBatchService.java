@@ -0,0 +1,167 @@
+package com.aisinger.service;
+
+import com.aisinger.config.LlmProperties;
+import com.aisinger.dto.LyricsBatchEvent;
+import com.aisinger.dto.LyricsBatchRequest;
+import com.aisinger.dto.LyricsGenerateRequest;
+import com.aisinger.dto.LyricsGenerateResponse;
+import com.aisinger.entity.Song;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 批量歌词生成服务
+ * 按当前LLM提供商限制并发、按每分钟请求数匀速发起，每条完成即推送结果；
+ * 需要保存时，全部完成后在一个事务内将成功的条目保存为歌曲
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LyricsBatchService {
+    
+    private final LlmService llmService;
+    private final LlmConfigService llmConfigService;
+    private final SongService songService;
+    private final LlmProperties llmProperties;
+    
+    public Flux<LyricsBatchEvent> generate(LyricsBatchRequest request) {
+        List<LyricsGenerateRequest> items = expand(request);
+        LlmProperties.BatchConfig config = llmProperties.getBatch();
+        if (items.isEmpty()) {
+            return Flux.just(rejected("批量请求为空"));
+        }
+        if (items.size() > config.getMaxItems()) {
+            return Flux.just(rejected("单个批次最多 " + config.getMaxItems() + " 条"));
+        }
+        
+        String provider = llmConfigService.getActiveConfig().getProvider().toLowerCase();
+        int concurrency = Math.max(1, config.getProviderConcurrency().getOrDefault(provider, config.getConcurrency()));
+        Duration spacing = Duration.ofMillis(60_000L / Math.max(1, config.getRequestsPerMinute()));
+        log.info("批量生成歌词: {} 条，提供商 {}，并发 {}，请求间隔 {}ms",
+                items.size(), provider, concurrency, spacing.toMillis());
+        
+        // 按序号排序，保存时与请求顺序一致
+        Map<Integer, LyricsGenerateResponse> succeeded = new ConcurrentSkipListMap<>();
+        
+        // delayUntil 逐条限速且遵循背压：flatMap 只在有空闲并发时才拉取下一条
+        Flux<LyricsBatchEvent> itemEvents = Flux.range(0, items.size())
+                .delayUntil(index -> index == 0 ? Mono.empty() : Mono.delay(spacing))
+                .flatMap(index -> generateItem(index, items.get(index), succeeded), concurrency);
+        
+        Flux<LyricsBatchEvent> summary = Mono.fromCallable(() -> summarize(items.size(), succeeded, request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flux();
+        
+        return itemEvents.concatWith(summary);
+    }
+    
+    private Mono<LyricsBatchEvent> generateItem(int index, LyricsGenerateRequest item,
+                                                Map<Integer, LyricsGenerateResponse> succeeded) {
+        long start = System.currentTimeMillis();
+        return llmService.generateLyricsOrError(item)
+                .map(result -> {
+                    succeeded.put(index, result);
+                    return LyricsBatchEvent.builder()
+                            .type(LyricsBatchEvent.ITEM)
+                            .index(index)
+                            .success(true)
+                            .result(result)
+                            .processingTimeMs(System.currentTimeMillis() - start)
+                            .build();
+                })
+                .onErrorResume(e -> {
+                    log.warn("批量生成第 {} 条失败: {}", index + 1, e.getMessage());
+                    return Mono.just(LyricsBatchEvent.builder()
+                            .type(LyricsBatchEvent.ITEM)
+                            .index(index)
+                            .success(false)
+                            .errorMessage(e.getMessage())
+                            .processingTimeMs(System.currentTimeMillis() - start)
+                            .build());
+                });
+    }
+    
+    private LyricsBatchEvent summarize(int total, Map<Integer, LyricsGenerateResponse> succeeded,
+                                       LyricsBatchRequest request) {
+        LyricsBatchEvent.LyricsBatchEventBuilder summary = LyricsBatchEvent.builder()
+                .type(LyricsBatchEvent.DONE)
+                .total(total)
+                .succeeded(succeeded.size())
+                .failed(total - succeeded.size());
+        
+        if (Boolean.TRUE.equals(request.getPersist()) && !succeeded.isEmpty()) {
+            try {
+                List<Song> songs = songService.createGeneratedSongs(new ArrayList<>(succeeded.values()), request.getSingerId());
+                summary.songIds(songs.stream().map(Song::getId).toList());
+            } catch (Exception e) {
+                log.error("批量保存歌曲失败", e);
+                summary.errorMessage("保存歌曲失败: " + e.getMessage());
+            }
+        }
+        return summary.build();
+    }
+    
+    /**
+     * 展开批量请求：逐条请求在前，模板 + 变化在后
+     */
+    private static List<LyricsGenerateRequest> expand(LyricsBatchRequest request) {
+        List<LyricsGenerateRequest> items = new ArrayList<>();
+        if (request.getItems() != null) {
+            request.getItems().stream().filter(Objects::nonNull).forEach(items::add);
+        }
+        LyricsGenerateRequest template = request.getTemplate();
+        if (template != null) {
+            if (request.getVariations() == null || request.getVariations().isEmpty()) {
+                items.add(template);
+            } else {
+                request.getVariations().stream()
+                        .filter(Objects::nonNull)
+                        .map(variation -> merge(template, variation))
+                        .forEach(items::add);
+            }
+        }
+        return items;
+    }
+    
+    /**
+     * 变化中非空的字段覆盖模板
+     */
+    private static LyricsGenerateRequest merge(LyricsGenerateRequest template, LyricsGenerateRequest variation) {
+        return LyricsGenerateRequest.builder()
+                .theme(firstNonNull(variation.getTheme(), template.getTheme()))
+                .mood(firstNonNull(variation.getMood(), template.getMood()))
+                .style(firstNonNull(variation.getStyle(), template.getStyle()))
+                .language(firstNonNull(variation.getLanguage(), template.getLanguage()))
+                .verseCount(firstNonNull(variation.getVerseCount(), template.getVerseCount()))
+                .hasChorus(firstNonNull(variation.getHasChorus(), template.getHasChorus()))
+                .keywords(firstNonNull(variation.getKeywords(), template.getKeywords()))
+                .additionalPrompt(firstNonNull(variation.getAdditionalPrompt(), template.getAdditionalPrompt()))
+                .reuse(firstNonNull(variation.getReuse(), template.getReuse()))
+                .build();
+    }
+    
+    private static <T> T firstNonNull(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+    
+    private static LyricsBatchEvent rejected(String message) {
+        return LyricsBatchEvent.builder()
+                .type(LyricsBatchEvent.DONE)
+                .total(0)
+                .succeeded(0)
+                .failed(0)
+                .errorMessage(message)
+                .build();
+    }
+}
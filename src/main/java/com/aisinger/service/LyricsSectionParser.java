@@ -0,0 +1,181 @@
+package com.aisinger.service;
+
+import com.aisinger.dto.LyricsGenerateResponse;
+import com.aisinger.dto.LyricsStreamEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 歌词段落解析器（【…】段落格式的单遍扫描器）
+ * 文本可一次性或分多次增量追加，每当遇到下一个【…】标记（或输出结束）时，前一个标记的内容即视为闭合并产生事件；
+ * 段落名不限于固定列表：主歌N、预副歌、重复的副歌等按出现顺序逐个产出，整个过程不使用正则。
+ * 每个实例只服务一次解析，非线程安全
+ */
+class LyricsSectionParser {
+    
+    // 段落名（去掉末尾编号）-> {段落类型, 建议情绪, 建议技巧}
+    private static final String[] INTRO = {"intro", "期待", "轻声"};
+    private static final String[] PRE_CHORUS = {"prechorus", "递进", "混声"};
+    private static final String[] CHORUS = {"chorus", "高潮", "混声"};
+    private static final String[] BRIDGE = {"bridge", "转折", "转音"};
+    private static final String[] INTERLUDE = {"interlude", "舒缓", "轻声"};
+    private static final String[] OUTRO = {"outro", "回味", "气声"};
+    // 主歌按编号轮换情绪和技巧：主歌1/4/7…、主歌2/5/8…、主歌3/6/9…
+    private static final String[][] VERSES = {
+            {"verse", "叙述", "自然"},
+            {"verse", "深情", "颤音"},
+            {"verse", "激昂", "假声"}};
+    
+    private final StringBuilder buffer = new StringBuilder();
+    private int scanFrom = 0;
+    private String openMarker;
+    private int contentStart;
+    
+    /**
+     * 一次性解析完整文本
+     */
+    static List<LyricsStreamEvent> parse(String text) {
+        LyricsSectionParser parser = new LyricsSectionParser();
+        List<LyricsStreamEvent> events = parser.append(text);
+        events.addAll(parser.finish());
+        return events;
+    }
+    
+    /**
+     * 根据段落名构建歌词段落；不是歌词段落（如说明文字）时返回null
+     */
+    static LyricsGenerateResponse.LyricsSection toSection(String sectionName, String content) {
+        String[] spec = specOf(sectionName);
+        if (spec == null) {
+            return null;
+        }
+        return LyricsGenerateResponse.LyricsSection.builder()
+                .type(spec[0])
+                .content(content)
+                .suggestedEmotion(spec[1])
+                .suggestedTechnique(spec[2])
+                .build();
+    }
+    
+    /**
+     * 追加一段文本，返回因此闭合的标记产生的事件
+     */
+    List<LyricsStreamEvent> append(String delta) {
+        buffer.append(delta);
+        List<LyricsStreamEvent> events = new ArrayList<>();
+        while (true) {
+            int open = buffer.indexOf("【", scanFrom);
+            if (open < 0) {
+                scanFrom = buffer.length();
+                break;
+            }
+            int close = buffer.indexOf("】", open + 1);
+            if (close < 0) {
+                // 标记尚未完整到达，下次从标记起点继续扫描
+                scanFrom = open;
+                break;
+            }
+            closeOpenMarker(open, events);
+            openMarker = buffer.substring(open + 1, close).trim();
+            contentStart = close + 1;
+            scanFrom = close + 1;
+        }
+        return events;
+    }
+    
+    /**
+     * 输出结束：闭合最后一个标记
+     */
+    List<LyricsStreamEvent> finish() {
+        List<LyricsStreamEvent> events = new ArrayList<>();
+        closeOpenMarker(buffer.length(), events);
+        openMarker = null;
+        return events;
+    }
+    
+    /**
+     * 目前为止收到的完整文本
+     */
+    String getText() {
+        return buffer.toString();
+    }
+    
+    private void closeOpenMarker(int end, List<LyricsStreamEvent> events) {
+        if (openMarker == null) {
+            return;
+        }
+        String content = buffer.substring(contentStart, end).trim();
+        if (content.isEmpty()) {
+            return;
+        }
+        switch (openMarker) {
+            case "标题" -> events.add(LyricsStreamEvent.builder()
+                    .type(LyricsStreamEvent.TITLE).content(firstLine(content)).build());
+            case "风格建议" -> events.add(LyricsStreamEvent.builder()
+                    .type(LyricsStreamEvent.STYLE).content(firstLine(content)).build());
+            case "BPM建议" -> {
+                String bpm = leadingDigits(content);
+                if (!bpm.isEmpty()) {
+                    events.add(LyricsStreamEvent.builder()
+                            .type(LyricsStreamEvent.BPM).content(bpm).build());
+                }
+            }
+            default -> {
+                LyricsGenerateResponse.LyricsSection section = toSection(openMarker, content);
+                if (section != null) {
+                    events.add(LyricsStreamEvent.builder()
+                            .type(LyricsStreamEvent.SECTION)
+                            .section(section)
+                            .build());
+                }
+            }
+        }
+    }
+    
+    /**
+     * 段落名 -> 段落规格；段落名末尾的编号（主歌3、副歌2）只影响主歌的情绪轮换
+     */
+    private static String[] specOf(String sectionName) {
+        int baseEnd = sectionName.length();
+        while (baseEnd > 0 && (Character.isDigit(sectionName.charAt(baseEnd - 1))
+                || Character.isWhitespace(sectionName.charAt(baseEnd - 1)))) {
+            baseEnd--;
+        }
+        String base = sectionName.substring(0, baseEnd);
+        return switch (base) {
+            case "前奏" -> INTRO;
+            case "主歌" -> {
+                String number = sectionName.substring(baseEnd).trim();
+                int index = number.isEmpty() || number.length() > 3 ? 0 : Integer.parseInt(number) - 1;
+                yield VERSES[Math.floorMod(index, VERSES.length)];
+            }
+            case "预副歌", "导歌" -> PRE_CHORUS;
+            case "副歌" -> CHORUS;
+            case "桥段" -> BRIDGE;
+            case "间奏" -> INTERLUDE;
+            case "尾声", "结尾" -> OUTRO;
+            default -> null;
+        };
+    }
+    
+    private static String firstLine(String content) {
+        int newline = content.indexOf('\n');
+        return (newline < 0 ? content : content.substring(0, newline)).trim();
+    }
+    
+    /**
+     * 取内容中第一段连续数字
+     */
+    private static String leadingDigits(String content) {
+        int start = 0;
+        while (start < content.length() && !Character.isDigit(content.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < content.length() && Character.isDigit(content.charAt(end))) {
+            end++;
+        }
+        return content.substring(start, end);
+    }
+}
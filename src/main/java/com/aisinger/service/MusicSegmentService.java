@@ -1,7 +1,9 @@
 package com.aisinger.service;
 
 import com.aisinger.dto.SegmentUpdateRequest;
+import com.aisinger.entity.Emotion;
 import com.aisinger.entity.MusicSegment;
+import com.aisinger.entity.SingingTechnique;
 import com.aisinger.repository.EmotionRepository;
 import com.aisinger.repository.MusicSegmentRepository;
 import com.aisinger.repository.SingingTechniqueRepository;
@@ -63,14 +65,15 @@ public class MusicSegmentService {
     public List<MusicSegment> batchUpdateSegments(List<Long> ids, Long techniqueId, Long emotionId) {
         List<MusicSegment> segments = segmentRepository.findAllById(ids);
         
+        // 技巧和情绪只查询一次，不随片段数增加
+        SingingTechnique technique = techniqueId != null ? techniqueRepository.findById(techniqueId).orElse(null) : null;
+        Emotion emotion = emotionId != null ? emotionRepository.findById(emotionId).orElse(null) : null;
         for (MusicSegment segment : segments) {
-            if (techniqueId != null) {
-                techniqueRepository.findById(techniqueId)
-                        .ifPresent(segment::setTechnique);
+            if (technique != null) {
+                segment.setTechnique(technique);
             }
-            if (emotionId != null) {
-                emotionRepository.findById(emotionId)
-                        .ifPresent(segment::setEmotion);
+            if (emotion != null) {
+                segment.setEmotion(emotion);
             }
         }
         
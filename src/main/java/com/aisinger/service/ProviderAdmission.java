@@ -0,0 +1,334 @@
+package com.aisinger.service;
+
+import com.aisinger.config.AdmissionProperties;
+import com.aisinger.repository.SynthesisProviderConfigRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 提供商准入控制
+ * 每个合成引擎/LLM提供商一个闸门：令牌桶限制每分钟请求数，信号量限制并发数；
+ * 拿不到许可时在截止时间内排队等待，排队已满或等待超时则立即拒绝，使吞吐稳定在提供商上限而不是触发429重试风暴
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderAdmission {
+    
+    private static final Limits UNLIMITED = new Limits(0, 0);
+    
+    private final AdmissionProperties properties;
+    private final SynthesisProviderConfigRepository providerConfigRepository;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    
+    /**
+     * 合成引擎准入（阻塞等待），上限取自同名的合成服务商配置
+     */
+    public Permit acquireEngine(String engineName) {
+        return acquire("engine:" + engineName, () -> engineLimits(engineName));
+    }
+    
+    /**
+     * 在LLM提供商的准入许可内执行调用；等待许可发生在弹性线程池上，不阻塞事件循环
+     */
+    public <T> Mono<T> admitLlm(String provider, Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Mono.usingWhen(acquireLlm(provider), permit -> call, permit -> Mono.fromRunnable(permit::close));
+    }
+    
+    /**
+     * 在LLM提供商的准入许可内执行流式调用，流结束或取消时归还许可
+     */
+    public <T> Flux<T> admitLlmStream(String provider, Flux<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Flux.usingWhen(acquireLlm(provider), permit -> call, permit -> Mono.fromRunnable(permit::close));
+    }
+    
+    private Mono<Permit> acquireLlm(String provider) {
+        String name = provider != null ? provider.toLowerCase() : "unknown";
+        return Mono.fromCallable(() -> acquire("llm:" + name, () -> llmLimits(name)))
+                .subscribeOn(Schedulers.boundedElastic())
+                // 等待期间调用方已取消时，迟到的许可立即归还
+                .doOnDiscard(Permit.class, Permit::close);
+    }
+    
+    /**
+     * 申请许可：先占并发名额，再取速率令牌，总等待时间不超过配置的排队超时
+     */
+    Permit acquire(String key, Supplier<Limits> limitsSupplier) {
+        Stats stat = stats.computeIfAbsent(key, this::newStats);
+        if (!properties.isEnabled()) {
+            return new Permit(null, stat);
+        }
+        Gate gate = gateFor(key, limitsSupplier);
+        if (gate.limits().isUnlimited()) {
+            stat.admitted(0);
+            return new Permit(null, stat);
+        }
+        
+        long start = System.currentTimeMillis();
+        long deadline = start + properties.getQueueTimeoutMs();
+        if (stat.waiting.incrementAndGet() > properties.getMaxQueue()) {
+            stat.waiting.decrementAndGet();
+            throw stat.reject(key + " 排队请求已满（" + properties.getMaxQueue() + "）");
+        }
+        
+        Semaphore semaphore = gate.semaphore();
+        boolean semaphoreHeld = false;
+        try {
+            if (semaphore != null) {
+                if (!semaphore.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    throw stat.reject(key + " 等待并发许可超时（上限 " + gate.limits().maxConcurrent() + "）");
+                }
+                semaphoreHeld = true;
+            }
+            if (gate.bucket() != null) {
+                long wait = gate.bucket().reserve();
+                if (wait > deadline - System.currentTimeMillis()) {
+                    gate.bucket().cancel();
+                    throw stat.reject(key + " 已达速率上限（每分钟 " + gate.limits().rateLimit() + " 次）");
+                }
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (semaphoreHeld) {
+                semaphore.release();
+            }
+            throw stat.reject(key + " 等待许可被中断");
+        } catch (AdmissionRejectedException e) {
+            if (semaphoreHeld) {
+                semaphore.release();
+            }
+            throw e;
+        } finally {
+            stat.waiting.decrementAndGet();
+        }
+        
+        long waitedMs = System.currentTimeMillis() - start;
+        stat.admitted(waitedMs);
+        stat.waitTimer.record(waitedMs, TimeUnit.MILLISECONDS);
+        if (waitedMs > 1000) {
+            log.debug("{} 等待准入许可 {}ms", key, waitedMs);
+        }
+        return new Permit(semaphore, stat);
+    }
+    
+    /**
+     * 准入统计：按提供商列出上限、排队数、执行中数、通过/拒绝次数和等待时间
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> providers = new HashMap<>();
+        stats.forEach((key, stat) -> {
+            Map<String, Object> info = new HashMap<>();
+            Gate gate = gates.get(key);
+            if (gate != null) {
+                info.put("rateLimit", gate.limits().rateLimit());
+                info.put("maxConcurrent", gate.limits().maxConcurrent());
+            }
+            long admitted = stat.admitted.get();
+            info.put("waiting", stat.waiting.get());
+            info.put("inFlight", stat.inFlight.get());
+            info.put("admitted", admitted);
+            info.put("rejected", stat.rejected.get());
+            info.put("avgWaitMs", admitted == 0 ? 0.0 : (double) stat.totalWaitMs.get() / admitted);
+            info.put("maxWaitMs", stat.maxWaitMs.get());
+            providers.put(key, info);
+        });
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", properties.isEnabled());
+        result.put("queueTimeoutMs", properties.getQueueTimeoutMs());
+        result.put("maxQueue", properties.getMaxQueue());
+        result.put("providers", providers);
+        return result;
+    }
+    
+    /**
+     * 获取闸门；上限定期从配置重新读取，变化时整体替换（已发出的许可归还到原闸门）
+     */
+    private Gate gateFor(String key, Supplier<Limits> limitsSupplier) {
+        long now = System.currentTimeMillis();
+        Gate gate = gates.get(key);
+        if (gate != null && now - gate.loadedAt() < properties.getRefreshSeconds() * 1000L) {
+            return gate;
+        }
+        Limits limits = limitsSupplier.get();
+        return gates.compute(key, (k, current) -> {
+            if (current != null && current.limits().equals(limits)) {
+                return current.reloaded(now);
+            }
+            if (current != null) {
+                log.info("准入上限变化: {} {} -> {}", key, current.limits(), limits);
+            }
+            return Gate.of(limits, properties.getBurstSeconds(), now);
+        });
+    }
+    
+    /**
+     * 新建统计项并注册为指标，标签 kind 为 engine / llm
+     */
+    private Stats newStats(String key) {
+        int separator = key.indexOf(':');
+        Tags tags = Tags.of("kind", key.substring(0, separator), "provider", key.substring(separator + 1));
+        Stats stat = new Stats(Timer.builder("aisinger.admission.wait")
+                .description("等待准入许可的时间")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        Gauge.builder("aisinger.admission.waiting", stat.waiting, AtomicInteger::get)
+                .description("排队等待准入的请求数").tags(tags).register(meterRegistry);
+        Gauge.builder("aisinger.admission.in.flight", stat.inFlight, AtomicInteger::get)
+                .description("持有许可执行中的请求数").tags(tags).register(meterRegistry);
+        FunctionCounter.builder("aisinger.admission.rejected", stat.rejected, AtomicLong::get)
+                .description("准入被拒绝次数").tags(tags).register(meterRegistry);
+        return stat;
+    }
+    
+    private Limits engineLimits(String engineName) {
+        return providerConfigRepository.findByProvider(engineName)
+                .map(config -> new Limits(
+                        config.getRateLimit() != null ? config.getRateLimit() : 0,
+                        config.getMaxConcurrent() != null ? config.getMaxConcurrent() : 0))
+                .orElse(UNLIMITED);
+    }
+    
+    private Limits llmLimits(String provider) {
+        AdmissionProperties.Limit limit = properties.getLlm().get(provider);
+        return limit != null ? new Limits(limit.getRateLimit(), limit.getMaxConcurrent()) : UNLIMITED;
+    }
+    
+    /**
+     * 准入许可，调用结束后必须关闭以归还并发名额（重复关闭无副作用）
+     */
+    public static final class Permit implements AutoCloseable {
+        
+        private final Semaphore semaphore;
+        private final Stats stat;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        private Permit(Semaphore semaphore, Stats stat) {
+            this.semaphore = semaphore;
+            this.stat = stat;
+            stat.inFlight.incrementAndGet();
+        }
+        
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                stat.inFlight.decrementAndGet();
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+    
+    /**
+     * 提供商上限，0表示不限
+     */
+    record Limits(int rateLimit, int maxConcurrent) {
+        
+        boolean isUnlimited() {
+            return rateLimit <= 0 && maxConcurrent <= 0;
+        }
+    }
+    
+    private record Gate(Limits limits, Semaphore semaphore, TokenBucket bucket, long loadedAt) {
+        
+        static Gate of(Limits limits, int burstSeconds, long now) {
+            Semaphore semaphore = limits.maxConcurrent() > 0 ? new Semaphore(limits.maxConcurrent(), true) : null;
+            TokenBucket bucket = limits.rateLimit() > 0 ? new TokenBucket(limits.rateLimit(), burstSeconds) : null;
+            return new Gate(limits, semaphore, bucket, now);
+        }
+        
+        Gate reloaded(long now) {
+            return new Gate(limits, semaphore, bucket, now);
+        }
+    }
+    
+    /**
+     * 令牌桶：按每分钟速率匀速补充令牌，容量决定允许的突发量；
+     * 令牌不足时预约未来的令牌（余量可为负），返回需要等待的毫秒数
+     */
+    private static class TokenBucket {
+        
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefill;
+        
+        TokenBucket(int ratePerMinute, int burstSeconds) {
+            this.refillPerMs = ratePerMinute / 60_000.0;
+            this.capacity = Math.max(1.0, ratePerMinute * burstSeconds / 60.0);
+            this.tokens = capacity;
+            this.lastRefill = System.currentTimeMillis();
+        }
+        
+        synchronized long reserve() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / refillPerMs);
+        }
+        
+        synchronized void cancel() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+    
+    private static class Stats {
+        
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong maxWaitMs = new AtomicLong();
+        private final Timer waitTimer;
+        
+        Stats(Timer waitTimer) {
+            this.waitTimer = waitTimer;
+        }
+        
+        void admitted(long waitedMs) {
+            admitted.incrementAndGet();
+            totalWaitMs.addAndGet(waitedMs);
+            maxWaitMs.accumulateAndGet(waitedMs, Math::max);
+        }
+        
+        AdmissionRejectedException reject(String message) {
+            rejected.incrementAndGet();
+            return new AdmissionRejectedException(message);
+        }
+    }
+}
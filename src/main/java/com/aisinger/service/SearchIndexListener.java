@@ -0,0 +1,57 @@
+package com.aisinger.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.document.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 全文索引实体监听器
+ * 歌曲、歌手、模板保存或删除后增量更新索引；文档在回调时构造，事务提交后才写入索引，回滚的修改不会被搜到
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexListener {
+    
+    // 监听器随EntityManagerFactory创建，索引服务又依赖仓库，延迟获取以避免循环依赖
+    private final ObjectProvider<SearchIndexService> searchIndexService;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        SearchIndexService service = searchIndexService.getIfAvailable();
+        if (service == null || !service.isEnabled()) {
+            return;
+        }
+        Document document = service.documentOf(entity);
+        afterCommit(() -> service.update(document));
+    }
+    
+    @PostRemove
+    public void onRemove(Object entity) {
+        SearchIndexService service = searchIndexService.getIfAvailable();
+        if (service == null || !service.isEnabled()) {
+            return;
+        }
+        String key = service.keyOf(entity);
+        afterCommit(() -> service.delete(key));
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
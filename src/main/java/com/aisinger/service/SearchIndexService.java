@@ -0,0 +1,379 @@
+package com.aisinger.service;
+
+import com.aisinger.config.SearchProperties;
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.SearchHit;
+import com.aisinger.dto.SearchResult;
+import com.aisinger.entity.Singer;
+import com.aisinger.entity.Song;
+import com.aisinger.entity.SongTemplate;
+import com.aisinger.repository.SingerRepository;
+import com.aisinger.repository.SongRepository;
+import com.aisinger.repository.SongTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 全文搜索索引服务
+ * 进程内Lucene倒排索引，覆盖歌曲（标题/歌词/艺人/专辑）、歌手（名称/标签/风格）和模板（情绪关键词/风格提示词）；
+ * smartcn分词器处理中文，实体保存/删除后由 SearchIndexListener 增量更新，更新后近实时可搜
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+    
+    public static final String TYPE_SONG = "song";
+    public static final String TYPE_SINGER = "singer";
+    public static final String TYPE_TEMPLATE = "template";
+    
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_META = "meta";
+    private static final String FIELD_BODY = "body";
+    
+    /**
+     * 字段权重：标题命中最重要，其次是艺人/标签/风格等元数据，歌词和描述最低
+     */
+    private static final Map<String, Float> BOOSTS = Map.of(FIELD_TITLE, 3.0f, FIELD_META, 2.0f, FIELD_BODY, 1.0f);
+    
+    private static final int REBUILD_BATCH_SIZE = 500;
+    
+    private final SearchProperties searchProperties;
+    private final SongRepository songRepository;
+    private final SingerRepository singerRepository;
+    private final SongTemplateRepository songTemplateRepository;
+    
+    private Analyzer analyzer;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService committer;
+    
+    @PostConstruct
+    public void init() throws IOException {
+        if (!searchProperties.isEnabled()) {
+            log.info("全文索引未启用");
+            return;
+        }
+        analyzer = new SmartChineseAnalyzer();
+        String path = searchProperties.getDirectory();
+        directory = path == null || path.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(path));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = Math.max(1, searchProperties.getCommitIntervalSeconds());
+        committer.scheduleWithFixedDelay(this::commit, interval, interval, TimeUnit.SECONDS);
+        log.info("全文索引已打开: {}", path == null || path.isBlank() ? "内存" : path);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (isEnabled() && searchProperties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        committer.shutdownNow();
+        commit();
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.warn("关闭全文索引失败: {}", e.getMessage());
+        }
+    }
+    
+    public boolean isEnabled() {
+        return writer != null;
+    }
+    
+    /**
+     * 从数据库全量重建索引（分批读取）
+     *
+     * @return 写入的文档数
+     */
+    public synchronized int rebuild() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            writer.deleteAll();
+            int count = indexAll(songRepository, this::documentOf)
+                    + indexAll(singerRepository, this::documentOf)
+                    + indexAll(songTemplateRepository, this::documentOf);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("全文索引重建完成: {} 个文档，耗时 {}ms", count, System.currentTimeMillis() - start);
+            return count;
+        } catch (IOException e) {
+            throw new RuntimeException("全文索引重建失败: " + e.getMessage(), e);
+        }
+    }
+    
+    private <T> int indexAll(JpaRepository<T, Long> repository, Function<T, Document> toDocument) throws IOException {
+        int count = 0;
+        Page<T> page = repository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            for (T entity : page.getContent()) {
+                Document document = toDocument.apply(entity);
+                writer.updateDocument(new Term(FIELD_KEY, document.get(FIELD_KEY)), document);
+                count++;
+            }
+            if (!page.hasNext()) {
+                return count;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+    }
+    
+    /**
+     * 由实体构造索引文档，不支持的实体类型返回null；
+     * 在实体回调中调用，以保证读取的是保存时的字段值
+     */
+    public Document documentOf(Object entity) {
+        if (entity instanceof Song song) {
+            return documentOf(song);
+        }
+        if (entity instanceof Singer singer) {
+            return documentOf(singer);
+        }
+        if (entity instanceof SongTemplate template) {
+            return documentOf(template);
+        }
+        return null;
+    }
+    
+    private Document documentOf(Song song) {
+        return document(TYPE_SONG, song.getId(), song.getTitle(),
+                join(song.getArtist(), song.getAlbum(), song.getMusicStyle()),
+                song.getLyrics());
+    }
+    
+    private Document documentOf(Singer singer) {
+        return document(TYPE_SINGER, singer.getId(), join(singer.getName(), singer.getNameEn()),
+                join(singer.getTags(), singer.getVoiceStyle(), singer.getVoiceType(), singer.getVoiceCharacter(),
+                        singer.getSuitableGenres(), singer.getCategory()),
+                singer.getDescription());
+    }
+    
+    private Document documentOf(SongTemplate template) {
+        return document(TYPE_TEMPLATE, template.getId(), template.getName(),
+                join(template.getMoodKeywords(), template.getCategory(), template.getExampleArtists()),
+                join(template.getStylePrompt(), template.getDescription()));
+    }
+    
+    private static Document document(String type, Long id, String title, String meta, String body) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, keyOf(type, id), Field.Store.YES));
+        document.add(new StringField(FIELD_TYPE, type, Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, id));
+        document.add(new TextField(FIELD_TITLE, title != null ? title : "", Field.Store.YES));
+        document.add(new TextField(FIELD_META, meta, Field.Store.NO));
+        document.add(new TextField(FIELD_BODY, body != null ? body : "", Field.Store.NO));
+        return document;
+    }
+    
+    private static String join(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (joined.length() > 0) {
+                    joined.append(' ');
+                }
+                joined.append(part);
+            }
+        }
+        return joined.toString();
+    }
+    
+    /**
+     * 实体在索引中的键，不支持的实体类型返回null
+     */
+    public String keyOf(Object entity) {
+        if (entity instanceof Song song) {
+            return keyOf(TYPE_SONG, song.getId());
+        }
+        if (entity instanceof Singer singer) {
+            return keyOf(TYPE_SINGER, singer.getId());
+        }
+        if (entity instanceof SongTemplate template) {
+            return keyOf(TYPE_TEMPLATE, template.getId());
+        }
+        return null;
+    }
+    
+    private static String keyOf(String type, Long id) {
+        return type + ":" + id;
+    }
+    
+    /**
+     * 写入或替换一个文档；索引失败只记录日志，不影响业务写入
+     */
+    public void update(Document document) {
+        if (!isEnabled() || document == null) {
+            return;
+        }
+        try {
+            writer.updateDocument(new Term(FIELD_KEY, document.get(FIELD_KEY)), document);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("更新全文索引失败 [{}]: {}", document.get(FIELD_KEY), e.getMessage());
+        }
+    }
+    
+    /**
+     * 删除一个文档
+     */
+    public void delete(String key) {
+        if (!isEnabled() || key == null) {
+            return;
+        }
+        try {
+            writer.deleteDocuments(new Term(FIELD_KEY, key));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("删除全文索引失败 [{}]: {}", key, e.getMessage());
+        }
+    }
+    
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("提交全文索引失败: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 按相关度搜索
+     *
+     * @param keyword 关键词，按字面匹配（不解析查询语法）
+     * @param type    限定类型 song/singer/template，为空时搜索全部
+     * @param page    页码，从0开始
+     * @param size    每页条数
+     */
+    public SearchResult search(String keyword, String type, Integer page, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        int pageNo = page != null ? Math.max(0, page) : 0;
+        SearchResult.SearchResultBuilder result = SearchResult.builder()
+                .keyword(keyword)
+                .page(pageNo)
+                .size(pageSize)
+                .hits(List.of());
+        long end = (long) (pageNo + 1) * pageSize;
+        if (!isEnabled() || keyword == null || keyword.isBlank() || end > searchProperties.getMaxResults()) {
+            return result.build();
+        }
+        
+        long start = System.nanoTime();
+        Query query = buildQuery(keyword, type);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, (int) end);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(pageSize);
+                for (int i = pageNo * pageSize; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    Document document = storedFields.document(scoreDoc.doc);
+                    hits.add(SearchHit.builder()
+                            .type(document.get(FIELD_TYPE))
+                            .id(document.getField(FIELD_ID).numericValue().longValue())
+                            .title(document.get(FIELD_TITLE))
+                            .score(scoreDoc.score)
+                            .build());
+                }
+                return result
+                        .total(topDocs.totalHits.value)
+                        .hits(hits)
+                        .tookMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                        .build();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("全文搜索失败: " + e.getMessage(), e);
+        }
+    }
+    
+    private Query buildQuery(String keyword, String type) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{FIELD_TITLE, FIELD_META, FIELD_BODY}, analyzer, BOOSTS);
+        Query text;
+        try {
+            text = parser.parse(QueryParser.escape(keyword.trim()));
+        } catch (ParseException e) {
+            throw new RuntimeException("搜索关键词无法解析: " + keyword);
+        }
+        if (type == null || type.isBlank()) {
+            return text;
+        }
+        return new BooleanQuery.Builder()
+                .add(text, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER)
+                .build();
+    }
+}
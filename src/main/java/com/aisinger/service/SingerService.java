@@ -1,8 +1,11 @@
 package com.aisinger.service;
 
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.SingerSummary;
 import com.aisinger.entity.Singer;
 import com.aisinger.repository.SingerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +18,7 @@ import java.util.Optional;
 public class SingerService {
     
     private final SingerRepository singerRepository;
+    private final UsageCounterService usageCounterService;
     
     public List<Singer> getAllSingers() {
         return singerRepository.findByEnabledTrueOrderBySortOrderAsc();
@@ -24,6 +28,49 @@ public class SingerService {
         return singerRepository.findAll();
     }
     
+    /**
+     * 启用歌手摘要游标分页（按排序顺序、ID升序）
+     *
+     * @param cursor 上一页返回的游标（"排序顺序,ID"），为空时从第一页开始
+     * @param size   每页条数
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public CursorPage<SingerSummary> getSingerPage(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        int sortOrder = Integer.MIN_VALUE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.split(cursor.trim());
+            try {
+                sortOrder = Integer.parseInt(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw CursorPage.invalid(cursor);
+            }
+        }
+        List<SingerSummary> rows = singerRepository.findEnabledSummariesAfter(
+                sortOrder, afterId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, singer -> CursorPage.cursor(singer.getSortOrder(), singer.getId()));
+    }
+    
+    /**
+     * 获取热门歌手（读取使用计数服务维护的排行）
+     */
+    public List<Singer> getPopularSingers() {
+        List<Long> ids = usageCounterService.topIds(UsageCounterService.Target.SINGER);
+        if (ids.isEmpty()) {
+            return singerRepository.findTop10ByEnabledTrueOrderByPopularityDesc();
+        }
+        return UsageCounterService.inOrder(ids, singerRepository.findAllById(ids), Singer::getId);
+    }
+    
+    /**
+     * 记录一次使用，增加歌手热度
+     */
+    public void recordUse(Long id) {
+        usageCounterService.record(UsageCounterService.Target.SINGER, id);
+    }
+    
     public Optional<Singer> getSingerById(Long id) {
         return singerRepository.findById(id);
     }
@@ -1,9 +1,12 @@
 package com.aisinger.service;
 
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.SingingConfigSummary;
 import com.aisinger.entity.SingingConfig;
 import com.aisinger.repository.SingingConfigRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,7 @@ import java.util.Optional;
 public class SingingConfigService {
     
     private final SingingConfigRepository singingConfigRepository;
+    private final UsageCounterService usageCounterService;
     
     /**
      * 获取所有启用的配置
@@ -27,6 +31,31 @@ public class SingingConfigService {
         return singingConfigRepository.findByEnabledTrueOrderBySortOrderAsc();
     }
     
+    /**
+     * 启用配置摘要游标分页（按排序顺序、ID升序）
+     *
+     * @param cursor 上一页返回的游标（"排序顺序,ID"），为空时从第一页开始
+     * @param size   每页条数
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public CursorPage<SingingConfigSummary> getConfigPage(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        int sortOrder = Integer.MIN_VALUE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.split(cursor.trim());
+            try {
+                sortOrder = Integer.parseInt(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw CursorPage.invalid(cursor);
+            }
+        }
+        List<SingingConfigSummary> rows = singingConfigRepository.findEnabledSummariesAfter(
+                sortOrder, afterId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, config -> CursorPage.cursor(config.getSortOrder(), config.getId()));
+    }
+    
     /**
      * 获取所有配置（包括禁用的）
      */
@@ -63,10 +92,14 @@ public class SingingConfigService {
     }
     
     /**
-     * 获取热门配置
+     * 获取热门配置（读取使用计数服务维护的排行）
      */
     public List<SingingConfig> getPopularConfigs() {
-        return singingConfigRepository.findByEnabledTrueOrderByUseCountDesc();
+        List<Long> ids = usageCounterService.topIds(UsageCounterService.Target.SINGING_CONFIG);
+        if (ids.isEmpty()) {
+            return singingConfigRepository.findByEnabledTrueOrderByUseCountDesc();
+        }
+        return UsageCounterService.inOrder(ids, singingConfigRepository.findAllById(ids), SingingConfig::getId);
     }
     
     /**
@@ -185,14 +218,10 @@ public class SingingConfigService {
     }
     
     /**
-     * 增加使用次数
+     * 增加使用次数（内存累加，定期写库）
      */
-    @Transactional
     public void incrementUseCount(Long id) {
-        singingConfigRepository.findById(id).ifPresent(config -> {
-            config.setUseCount(config.getUseCount() + 1);
-            singingConfigRepository.save(config);
-        });
+        usageCounterService.record(UsageCounterService.Target.SINGING_CONFIG, id);
     }
     
     /**
@@ -0,0 +1,332 @@
+package com.aisinger.service;
+
+import com.aisinger.config.SynthesisProperties;
+import com.aisinger.dto.SongRenderResult;
+import com.aisinger.entity.MusicSegment;
+import com.aisinger.entity.SingingConfig;
+import com.aisinger.entity.Song;
+import com.aisinger.repository.MusicSegmentRepository;
+import com.aisinger.repository.SongRepository;
+import com.aisinger.synthesis.AudioStitcher;
+import com.aisinger.synthesis.SynthesisService;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import com.aisinger.synthesis.dto.SynthesisResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 歌曲渲染服务
+ * 每个片段按自身的技巧、情绪、音高构建合成请求并行合成，再按片段时间轴拼接为整首歌曲；
+ * 每个片段记录最近一次渲染的参数指纹（应用歌手、技巧、情绪配置后的合成缓存键），重新渲染时只合成指纹变化（或音频已丢失）的片段
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SongRenderService {
+    
+    private final SongRepository songRepository;
+    private final SynthesisService synthesisService;
+    private final SynthesisProperties synthesisProperties;
+    private final AudioStitcher audioStitcher;
+    private final MusicSegmentRepository segmentRepository;
+    
+    private ExecutorService renderExecutor;
+    
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, synthesisProperties.getRender().getParallelism());
+        AtomicInteger counter = new AtomicInteger();
+        renderExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "song-render-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+    
+    /**
+     * 使用当前活动引擎渲染歌曲
+     */
+    public SongRenderResult render(Long songId) {
+        return render(songId, synthesisProperties.getActiveEngine());
+    }
+    
+    /**
+     * 使用指定引擎渲染歌曲
+     */
+    public SongRenderResult render(Long songId, String engineName) {
+        Song song = loadSong(songId);
+        List<MusicSegment> segments = singableSegments(song);
+        if (segments.isEmpty()) {
+            return SongRenderResult.builder()
+                    .songId(songId)
+                    .success(false)
+                    .errorMessage("歌曲没有可演唱的片段")
+                    .build();
+        }
+        
+        long startTime = System.currentTimeMillis();
+        log.info("开始渲染歌曲 [{}] {}，共 {} 个片段，引擎: {}", songId, song.getTitle(), segments.size(), engineName);
+        
+        // 指纹未变且音频仍在的片段直接复用，其余片段并行合成
+        List<String> fingerprints = new ArrayList<>();
+        List<Boolean> reusedFlags = new ArrayList<>();
+        List<CompletableFuture<SynthesisResult>> futures = new ArrayList<>();
+        int reusedCount = 0;
+        for (MusicSegment segment : segments) {
+            SynthesisRequest request = buildRequest(song, segment);
+            String fingerprint = synthesisService.cacheKeyOf(engineName, request);
+            boolean reusable = isReusable(segment, fingerprint);
+            fingerprints.add(fingerprint);
+            reusedFlags.add(reusable);
+            if (reusable) {
+                futures.add(CompletableFuture.completedFuture(previousResult(segment)));
+                reusedCount++;
+            } else {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> synthesisService.synthesizeWithEngine(engineName, request), renderExecutor));
+            }
+        }
+        log.info("歌曲 [{}] 复用 {} 个片段，重新合成 {} 个片段", songId, reusedCount, segments.size() - reusedCount);
+        
+        List<SynthesisResult> results = new ArrayList<>();
+        List<SongRenderResult.SegmentRender> segmentRenders = new ArrayList<>();
+        int failed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            MusicSegment segment = segments.get(i);
+            SynthesisResult result;
+            try {
+                result = futures.get(i).join();
+            } catch (CompletionException e) {
+                result = SynthesisResult.error(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+            boolean reused = reusedFlags.get(i);
+            if (!result.isSuccess()) {
+                failed++;
+            } else if (!reused) {
+                segmentRepository.updateRenderState(segment.getId(), fingerprints.get(i),
+                        result.getAudioUrl(), result.getAudioPath(), result.getDuration());
+            }
+            results.add(result);
+            segmentRenders.add(SongRenderResult.SegmentRender.builder()
+                    .segmentId(segment.getId())
+                    .segmentOrder(segment.getSegmentOrder())
+                    .segmentType(segment.getSegmentType())
+                    .startTime(segment.getStartTime())
+                    .duration(result.getDuration())
+                    .audioUrl(result.getAudioUrl())
+                    .success(result.isSuccess())
+                    .reused(reused)
+                    .errorMessage(result.getErrorMessage())
+                    .build());
+        }
+        
+        SongRenderResult.SongRenderResultBuilder builder = SongRenderResult.builder()
+                .songId(songId)
+                .engine(engineName)
+                .segments(segmentRenders);
+        
+        if (failed > 0) {
+            return builder.success(false)
+                    .errorMessage(failed + " 个片段合成失败")
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .build();
+        }
+        
+        // 引擎未输出本地文件时（如Mock引擎）无法拼接，只返回各片段结果
+        if (results.stream().anyMatch(r -> r.getAudioPath() == null)) {
+            return builder.success(true)
+                    .duration(results.stream().mapToDouble(r -> r.getDuration() != null ? r.getDuration() : 0.0).sum())
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .build();
+        }
+        
+        try {
+            String format = results.get(0).getFormat() != null ? results.get(0).getFormat() : "mp3";
+            String fileName = "song_" + songId + "_" + UUID.randomUUID() + "." + format;
+            Path outputPath = Paths.get(synthesisProperties.getRender().getOutputDir()).resolve(fileName);
+            
+            List<AudioStitcher.Placement> timeline = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                MusicSegment segment = segments.get(i);
+                int volume = segment.getVolumeLevel() != null ? segment.getVolumeLevel() : 100;
+                timeline.add(new AudioStitcher.Placement(
+                        Paths.get(results.get(i).getAudioPath()), segment.getStartTime(), volume / 100.0));
+            }
+            List<String> warnings = new ArrayList<>();
+            if (!audioStitcher.supportsGain(timeline.get(0).path(), format)) {
+                List<Integer> ignored = segments.stream()
+                        .filter(segment -> segment.getVolumeLevel() != null && segment.getVolumeLevel() != 100)
+                        .map(MusicSegment::getSegmentOrder)
+                        .toList();
+                if (!ignored.isEmpty()) {
+                    String warning = format + " 格式不支持调整片段音量，以下片段的音量设置未生效: " + ignored;
+                    log.warn("歌曲 [{}] {}", songId, warning);
+                    warnings.add(warning);
+                }
+            }
+            Double duration = audioStitcher.assemble(timeline, outputPath, format);
+            
+            String audioUrl = synthesisProperties.getRender().getUrlPrefix() + "/" + fileName;
+            deletePreviousRender(song.getAudioUrl());
+            songRepository.updateAudioUrl(songId, audioUrl);
+            
+            long elapsed = System.currentTimeMillis() - startTime;
+            log.info("歌曲 [{}] 渲染完成: {}，耗时 {} ms", songId, outputPath, elapsed);
+            return builder.success(true)
+                    .audioUrl(audioUrl)
+                    .format(format)
+                    .duration(duration)
+                    .warnings(warnings)
+                    .processingTimeMs(elapsed)
+                    .build();
+        } catch (IOException e) {
+            log.error("歌曲 [{}] 音频拼接失败", songId, e);
+            return builder.success(false)
+                    .errorMessage("音频拼接失败: " + e.getMessage())
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .build();
+        }
+    }
+    
+    /**
+     * 列出参数已变化、需要重新合成的片段ID（当前活动引擎）
+     */
+    public List<Long> findStaleSegments(Long songId) {
+        return findStaleSegments(songId, synthesisProperties.getActiveEngine());
+    }
+    
+    /**
+     * 列出参数已变化、需要重新合成的片段ID
+     */
+    public List<Long> findStaleSegments(Long songId, String engineName) {
+        Song song = loadSong(songId);
+        return singableSegments(song).stream()
+                .filter(segment -> !isReusable(segment, synthesisService.cacheKeyOf(engineName, buildRequest(song, segment))))
+                .map(MusicSegment::getId)
+                .toList();
+    }
+    
+    private Song loadSong(Long songId) {
+        Song song = songRepository.findByIdForRender(songId);
+        if (song == null) {
+            throw new RuntimeException("歌曲不存在: " + songId);
+        }
+        return song;
+    }
+    
+    /**
+     * 需要演唱的片段（按顺序）；没有歌词的片段（如纯伴奏前奏）不需要合成，在时间轴上留空
+     */
+    private static List<MusicSegment> singableSegments(Song song) {
+        return song.getSegments().stream()
+                .filter(segment -> segment.getLyrics() != null && !segment.getLyrics().isBlank())
+                .sorted(Comparator.comparing(MusicSegment::getSegmentOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+    
+    /**
+     * 片段指纹未变化且上次渲染的音频仍然存在
+     */
+    private static boolean isReusable(MusicSegment segment, String fingerprint) {
+        if (!fingerprint.equals(segment.getRenderFingerprint()) || segment.getRenderedAudioUrl() == null) {
+            return false;
+        }
+        return segment.getRenderedAudioPath() == null || Files.exists(Paths.get(segment.getRenderedAudioPath()));
+    }
+    
+    private static SynthesisResult previousResult(MusicSegment segment) {
+        String path = segment.getRenderedAudioPath();
+        String format = path != null && path.lastIndexOf('.') >= 0 ? path.substring(path.lastIndexOf('.') + 1) : null;
+        return SynthesisResult.builder()
+                .success(true)
+                .audioUrl(segment.getRenderedAudioUrl())
+                .audioPath(path)
+                .duration(segment.getRenderedDuration())
+                .format(format)
+                .message("复用上次渲染结果")
+                .build();
+    }
+    
+    /**
+     * 由歌曲的演唱配置和片段自身的技巧、情绪、音高构建合成请求
+     */
+    private SynthesisRequest buildRequest(Song song, MusicSegment segment) {
+        SynthesisRequest request = SynthesisRequest.builder()
+                .lyrics(segment.getLyrics())
+                .build();
+        
+        SingingConfig config = song.getSingingConfig();
+        int basePitch = 0;
+        if (config != null) {
+            Optional.ofNullable(config.getVibratoDepth()).ifPresent(request::setVibratoDepth);
+            Optional.ofNullable(config.getVibratoRate()).ifPresent(request::setVibratoRate);
+            Optional.ofNullable(config.getBreathiness()).ifPresent(request::setBreathiness);
+            Optional.ofNullable(config.getTension()).ifPresent(request::setTension);
+            Optional.ofNullable(config.getBrightness()).ifPresent(request::setBrightness);
+            Optional.ofNullable(config.getGenderFactor()).ifPresent(request::setGenderFactor);
+            basePitch = config.getPitchShift() != null ? config.getPitchShift() : 0;
+        } else if (song.getSinger() != null && song.getSinger().getDefaultPitchShift() != null) {
+            basePitch = song.getSinger().getDefaultPitchShift();
+        }
+        
+        if (song.getSinger() != null) {
+            request.setModelPath(song.getSinger().getVoiceModelPath());
+        }
+        if (segment.getTechnique() != null) {
+            request.setTechniqueId(segment.getTechnique().getTechniqueId());
+        }
+        if (segment.getEmotion() != null) {
+            request.setEmotionId(segment.getEmotion().getEmotionId());
+        }
+        
+        int segmentPitch = segment.getPitchShift() != null ? segment.getPitchShift() : 0;
+        request.setPitchShift(Math.max(-12, Math.min(12, basePitch + segmentPitch)));
+        
+        if (segment.getStartTime() != null && segment.getEndTime() != null
+                && segment.getEndTime() > segment.getStartTime()) {
+            request.setDuration(segment.getEndTime() - segment.getStartTime());
+        }
+        return request;
+    }
+    
+    /**
+     * 删除上一次渲染输出的文件，避免渲染目录无限增长
+     */
+    private void deletePreviousRender(String previousUrl) {
+        String urlPrefix = synthesisProperties.getRender().getUrlPrefix() + "/";
+        if (previousUrl == null || !previousUrl.startsWith(urlPrefix)) {
+            return;
+        }
+        Path previous = Paths.get(synthesisProperties.getRender().getOutputDir())
+                .resolve(previousUrl.substring(urlPrefix.length()));
+        try {
+            Files.deleteIfExists(previous);
+        } catch (IOException e) {
+            log.warn("删除旧的渲染文件失败: {}", previous, e);
+        }
+    }
+}
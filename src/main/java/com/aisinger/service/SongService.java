@@ -1,15 +1,24 @@
 package com.aisinger.service;
 
+import com.aisinger.dto.CursorPage;
+import com.aisinger.dto.LyricsGenerateResponse;
 import com.aisinger.dto.SongCreateRequest;
+import com.aisinger.dto.SongSummary;
 import com.aisinger.entity.*;
 import com.aisinger.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -19,7 +28,6 @@ public class SongService {
     
     private final SongRepository songRepository;
     private final SingerRepository singerRepository;
-    private final MusicSegmentRepository segmentRepository;
     private final SingingTechniqueRepository techniqueRepository;
     private final EmotionRepository emotionRepository;
     private final SingingConfigRepository singingConfigRepository;
@@ -28,6 +36,27 @@ public class SongService {
         return songRepository.findAll();
     }
     
+    /**
+     * 歌曲摘要游标分页（新歌在前）
+     *
+     * @param cursor 上一页返回的游标（最后一首歌曲的ID），为空时从第一页开始
+     * @param size   每页条数
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public CursorPage<SongSummary> getSongPage(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                beforeId = Long.parseLong(cursor.trim());
+            } catch (NumberFormatException e) {
+                throw CursorPage.invalid(cursor);
+            }
+        }
+        List<SongSummary> rows = songRepository.findSummariesBefore(beforeId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, song -> String.valueOf(song.getId()));
+    }
+    
     public Optional<Song> getSongById(Long id) {
         return Optional.ofNullable(songRepository.findByIdWithSegments(id));
     }
@@ -40,6 +69,9 @@ public class SongService {
         return songRepository.findByMusicStyle(style);
     }
     
+    /**
+     * 搜索歌曲：标题模糊匹配（不区分大小写），与全文索引无关；按相关度检索标题、歌词等见 /api/search
+     */
     public List<Song> searchSongs(String keyword) {
         return songRepository.findByTitleContainingIgnoreCase(keyword);
     }
@@ -81,37 +113,43 @@ public class SongService {
             }
         }
         
-        Song savedSong = songRepository.save(song);
-        
-        // 创建片段
+        // 创建片段：引用到的技巧和情绪各用一次查询取回，片段随歌曲级联保存，提交时批量插入
         if (request.getSegments() != null && !request.getSegments().isEmpty()) {
+            Map<Long, SingingTechnique> techniques = techniqueRepository
+                    .findAllById(referencedIds(request.getSegments(), SongCreateRequest.SegmentConfig::getTechniqueId))
+                    .stream()
+                    .collect(Collectors.toMap(SingingTechnique::getId, Function.identity()));
+            Map<Long, Emotion> emotions = emotionRepository
+                    .findAllById(referencedIds(request.getSegments(), SongCreateRequest.SegmentConfig::getEmotionId))
+                    .stream()
+                    .collect(Collectors.toMap(Emotion::getId, Function.identity()));
+            
             for (SongCreateRequest.SegmentConfig segConfig : request.getSegments()) {
                 MusicSegment segment = MusicSegment.builder()
-                        .song(savedSong)
+                        .song(song)
                         .segmentOrder(segConfig.getSegmentOrder())
                         .segmentType(segConfig.getSegmentType())
                         .startTime(segConfig.getStartTime())
                         .endTime(segConfig.getEndTime())
                         .lyrics(segConfig.getLyrics())
+                        .technique(segConfig.getTechniqueId() != null ? techniques.get(segConfig.getTechniqueId()) : null)
+                        .emotion(segConfig.getEmotionId() != null ? emotions.get(segConfig.getEmotionId()) : null)
                         .volumeLevel(segConfig.getVolumeLevel() != null ? segConfig.getVolumeLevel() : 100)
                         .pitchShift(segConfig.getPitchShift() != null ? segConfig.getPitchShift() : 0)
                         .build();
-                
-                if (segConfig.getTechniqueId() != null) {
-                    techniqueRepository.findById(segConfig.getTechniqueId())
-                            .ifPresent(segment::setTechnique);
-                }
-                
-                if (segConfig.getEmotionId() != null) {
-                    emotionRepository.findById(segConfig.getEmotionId())
-                            .ifPresent(segment::setEmotion);
-                }
-                
-                segmentRepository.save(segment);
+                song.getSegments().add(segment);
             }
         }
         
-        return songRepository.findByIdWithSegments(savedSong.getId());
+        return songRepository.save(song);
+    }
+    
+    private static Set<Long> referencedIds(List<SongCreateRequest.SegmentConfig> segments,
+                                           Function<SongCreateRequest.SegmentConfig, Long> idOf) {
+        return segments.stream()
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
     
     @Transactional
@@ -131,6 +169,27 @@ public class SongService {
         return songRepository.save(song);
     }
     
+    /**
+     * 批量保存AI生成的歌曲（同一事务）
+     */
+    @Transactional
+    public List<Song> createGeneratedSongs(List<LyricsGenerateResponse> generated, Long singerId) {
+        Singer singer = singerId != null ? singerRepository.findById(singerId).orElse(null) : null;
+        
+        List<Song> songs = generated.stream()
+                .map(lyrics -> Song.builder()
+                        .title(lyrics.getTitle())
+                        .lyrics(lyrics.getFullLyrics())
+                        .musicStyle(lyrics.getSuggestedStyle())
+                        .bpm(lyrics.getSuggestedBpm())
+                        .isGenerated(true)
+                        .singer(singer)
+                        .build())
+                .toList();
+        
+        return songRepository.saveAll(songs);
+    }
+    
     @Transactional
     public void deleteSong(Long id) {
         songRepository.deleteById(id);
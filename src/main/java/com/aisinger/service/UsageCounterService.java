@@ -0,0 +1,203 @@
+package com.aisinger.service;
+
+import com.aisinger.config.UsageProperties;
+import com.aisinger.dto.UsageCount;
+import com.aisinger.repository.SingerRepository;
+import com.aisinger.repository.SingingConfigRepository;
+import com.aisinger.repository.SongTemplateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 使用计数服务
+ * 演唱配置/模板的使用次数和歌手热度先在内存中用 LongAdder 无锁累加，
+ * 按间隔以 "SET count = count + 增量" 的单条UPDATE写库，避免逐次读-改-写丢失更新和行锁排队；
+ * 每次写库后从库中重新读取计数，维护热门排行（Top-K）供热门接口直接读取
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsageCounterService {
+    
+    public enum Target {
+        SINGING_CONFIG, SONG_TEMPLATE, SINGER
+    }
+    
+    private final UsageProperties usageProperties;
+    private final SingingConfigRepository singingConfigRepository;
+    private final SongTemplateRepository songTemplateRepository;
+    private final SingerRepository singerRepository;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<Target, Tracker> trackers = new EnumMap<>(Target.class);
+    private ScheduledExecutorService flusher;
+    
+    @PostConstruct
+    public void init() {
+        trackers.put(Target.SINGING_CONFIG, new Tracker(
+                singingConfigRepository::addUseCount, singingConfigRepository::findEnabledUseCounts));
+        trackers.put(Target.SONG_TEMPLATE, new Tracker(
+                songTemplateRepository::addUseCount, songTemplateRepository::findEnabledUseCounts));
+        trackers.put(Target.SINGER, new Tracker(
+                singerRepository::addPopularity, singerRepository::findEnabledPopularity));
+        
+        trackers.forEach((target, tracker) -> Gauge.builder("aisinger.usage.pending", tracker, Tracker::pendingTotal)
+                .description("尚未写库的使用计数增量")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        
+        if (usageProperties.isEnabled()) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "usage-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            int interval = Math.max(1, usageProperties.getFlushIntervalSeconds());
+            flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * 启动完成（示例数据已写入）后加载计数和热门排行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        trackers.values().forEach(this::reload);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flush();
+        }
+    }
+    
+    /**
+     * 记录一次使用；已加载过的ID只做内存累加，
+     * 新建、已禁用或不存在的ID直接执行一条自增UPDATE（不存在时更新0行）
+     */
+    public void record(Target target, Long id) {
+        Tracker tracker = trackers.get(target);
+        LongAdder adder = usageProperties.isEnabled() ? tracker.pending.get(id) : null;
+        if (adder != null) {
+            adder.increment();
+            return;
+        }
+        tracker.increment.apply(id, 1);
+    }
+    
+    /**
+     * 热门排行的ID（按计数降序）；首次加载前或未启用内存累加时为空，调用方应退回数据库排序
+     */
+    public List<Long> topIds(Target target) {
+        return usageProperties.isEnabled() ? trackers.get(target).top : List.of();
+    }
+    
+    /**
+     * 把增量写库并刷新热门排行
+     */
+    public synchronized void flush() {
+        trackers.values().forEach(tracker -> {
+            try {
+                flush(tracker);
+                reload(tracker);
+            } catch (RuntimeException e) {
+                log.warn("使用计数写库失败: {}", e.getMessage());
+            }
+        });
+    }
+    
+    private void flush(Tracker tracker) {
+        for (Map.Entry<Long, LongAdder> entry : tracker.pending.entrySet()) {
+            // sumThenReset 逐单元取值并清零，并发中的自增要么计入本次增量，要么留到下一次
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                tracker.increment.apply(entry.getKey(), Math.toIntExact(delta));
+            } catch (RuntimeException e) {
+                entry.getValue().add(delta);
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * 从库中读取启用条目的计数，登记累加器并重算排行（小顶堆保留前K个，O(n log K)）
+     */
+    private void reload(Tracker tracker) {
+        List<UsageCount> counts = tracker.loader.get();
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(entry -> entry[1])
+                .thenComparingLong(entry -> -entry[0]);
+        int topK = Math.max(1, usageProperties.getTopK());
+        PriorityQueue<long[]> heap = new PriorityQueue<>(topK + 1, order);
+        for (UsageCount count : counts) {
+            LongAdder adder = tracker.pending.computeIfAbsent(count.getId(), id -> new LongAdder());
+            long total = (count.getTotal() != null ? count.getTotal() : 0) + adder.sum();
+            heap.offer(new long[]{count.getId(), total});
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<Long> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(0, heap.poll()[0]);
+        }
+        tracker.top = List.copyOf(top);
+    }
+    
+    /**
+     * 按给定ID顺序排列实体（findAllById 不保证顺序），已不存在的ID被跳过
+     */
+    public static <T> List<T> inOrder(List<Long> ids, List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    private static final class Tracker {
+        
+        private final BiFunction<Long, Integer, Integer> increment;
+        private final Supplier<List<UsageCount>> loader;
+        private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+        private volatile List<Long> top = List.of();
+        
+        private Tracker(BiFunction<Long, Integer, Integer> increment, Supplier<List<UsageCount>> loader) {
+            this.increment = increment;
+            this.loader = loader;
+        }
+        
+        private double pendingTotal() {
+            return pending.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
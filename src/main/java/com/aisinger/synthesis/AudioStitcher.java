@@ -0,0 +1,431 @@
+package com.aisinger.synthesis;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 音频拼接器
+ * 将分段合成的音频按顺序拼接为一个文件，并根据实际音频数据计算总时长：
+ * MP3 逐帧拼接（去掉后续分段的ID3标签）并按帧数计算时长；WAV 合并data块并重写头部长度。
+ * 指定开始时间时按时间轴排布，片段之间的空档填充静音（片段超出时间窗时顺延，不截断）
+ */
+@Component
+public class AudioStitcher {
+    
+    private static final int[] MPEG1_L3_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_L3_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            {0, 0, 0},              // 保留
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}   // MPEG 1
+    };
+    private static final int PCM_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * 时间轴上的一个片段
+     *
+     * @param path      音频文件
+     * @param startTime 开始时间（秒），为空表示紧接上一片段
+     * @param gain      音量增益（1.0为原始音量，仅对16位PCM WAV生效，见 supportsGain）
+     */
+    public record Placement(Path path, Double startTime, double gain) {
+        
+        public static Placement of(Path path) {
+            return new Placement(path, null, 1.0);
+        }
+    }
+    
+    /**
+     * 该音频能否按增益调整音量：只支持16位PCM WAV，MP3等压缩格式不解码无法缩放采样
+     */
+    public boolean supportsGain(Path path, String format) throws IOException {
+        if (!"wav".equalsIgnoreCase(format)) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            WavLayout layout = readWavLayout(in);
+            return layout != null && layout.bitsPerSample() == 16;
+        }
+    }
+    
+    /**
+     * 按顺序拼接音频文件
+     *
+     * @return 拼接后音频的实际时长（秒），无法解析时返回null
+     */
+    public Double stitch(List<Path> parts, Path target, String format) throws IOException {
+        return assemble(parts.stream().map(Placement::of).toList(), target, format);
+    }
+    
+    /**
+     * 按时间轴排布音频片段
+     *
+     * @return 拼接后音频的实际时长（秒），无法解析时返回null
+     */
+    public Double assemble(List<Placement> parts, Path target, String format) throws IOException {
+        Files.createDirectories(target.getParent());
+        if ("wav".equalsIgnoreCase(format)) {
+            return assembleWav(parts, target);
+        }
+        if ("mp3".equalsIgnoreCase(format)) {
+            return assembleMp3(parts, target);
+        }
+        
+        // 未知格式直接按字节拼接
+        try (FileChannel out = openForWrite(target)) {
+            for (Placement part : parts) {
+                try (FileChannel in = FileChannel.open(part.path(), StandardOpenOption.READ)) {
+                    transferAll(in, 0, in.size(), out);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 逐段流式拼接MP3：每段经缓冲输入流按块读取，边写出边统计帧时长，堆内只保留固定大小的缓冲区
+     */
+    private Double assembleMp3(List<Placement> parts, Path target) throws IOException {
+        double cursor = 0;
+        boolean parsed = true;
+        byte[] block = new byte[PCM_BUFFER_SIZE];
+        try (FileChannel out = openForWrite(target)) {
+            for (int i = 0; i < parts.size(); i++) {
+                Placement part = parts.get(i);
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(part.path()), PCM_BUFFER_SIZE)) {
+                    // 只保留第一段的ID3v2标签，后续分段跳过
+                    long tagLength = id3v2Length(in, Files.size(part.path()));
+                    if (i == 0) {
+                        copy(in, tagLength, out, block);
+                    } else {
+                        in.skipNBytes(tagLength);
+                    }
+                    
+                    if (parsed && part.startTime() != null) {
+                        int firstHeader = peekFrameHeader(in, block);
+                        if (firstHeader != 0) {
+                            cursor += writeMp3Silence(out, firstHeader, part.startTime() - cursor);
+                        }
+                    }
+                    
+                    Mp3Scanner scanner = new Mp3Scanner();
+                    int n;
+                    while ((n = in.read(block)) > 0) {
+                        scanner.scan(block, n);
+                        writeFully(out, block, n);
+                    }
+                    
+                    double partSeconds = scanner.seconds();
+                    if (partSeconds < 0) {
+                        parsed = false;
+                    } else {
+                        cursor += partSeconds;
+                    }
+                }
+            }
+        }
+        return parsed ? cursor : null;
+    }
+    
+    /**
+     * 写入静音帧：沿用片段首帧的格式，去掉CRC和填充位，帧体全零（无主数据即解码为静音）
+     *
+     * @return 实际写入的静音时长（秒）
+     */
+    private static double writeMp3Silence(FileChannel out, int templateHeader, double seconds) throws IOException {
+        int header = (templateHeader | 0x00010000) & ~0x00000200;
+        Mp3Frame frame = Mp3Frame.parse(header);
+        int count = frame != null ? (int) Math.round(seconds / frame.seconds()) : 0;
+        if (count <= 0) {
+            return 0;
+        }
+        
+        ByteBuffer silent = ByteBuffer.allocate(frame.length());
+        silent.putInt(0, header);
+        for (int n = 0; n < count; n++) {
+            silent.clear();
+            while (silent.hasRemaining()) {
+                out.write(silent);
+            }
+        }
+        return count * frame.seconds();
+    }
+    
+    private Double assembleWav(List<Placement> parts, Path target) throws IOException {
+        long dataBytes = 0;
+        long dataSizeOffset = -1;
+        WavLayout format = null;
+        try (FileChannel out = openForWrite(target)) {
+            for (int i = 0; i < parts.size(); i++) {
+                Placement part = parts.get(i);
+                try (FileChannel in = FileChannel.open(part.path(), StandardOpenOption.READ)) {
+                    WavLayout layout = readWavLayout(in);
+                    if (layout == null) {
+                        throw new IOException("无法解析WAV文件: " + part.path());
+                    }
+                    if (i == 0) {
+                        // 第一段的头部（含fmt等块）原样保留，稍后回填长度
+                        transferAll(in, 0, layout.dataOffset(), out);
+                        dataSizeOffset = layout.dataOffset() - 4;
+                        format = layout;
+                    }
+                    
+                    if (part.startTime() != null && format.byteRate() > 0) {
+                        long targetBytes = alignDown((long) (part.startTime() * format.byteRate()), format.blockAlign());
+                        dataBytes += writePcmSilence(out, targetBytes - dataBytes, format);
+                    }
+                    
+                    if (part.gain() != 1.0 && format.bitsPerSample() == 16) {
+                        copyWithGain(in, layout.dataOffset(), layout.dataLength(), out, part.gain());
+                    } else {
+                        transferAll(in, layout.dataOffset(), layout.dataLength(), out);
+                    }
+                    dataBytes += layout.dataLength();
+                }
+            }
+            
+            ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            size.putInt(0, (int) (dataSizeOffset + 4 + dataBytes - 8));
+            out.write(size, 4);
+            size.clear();
+            size.putInt(0, (int) dataBytes);
+            out.write(size, dataSizeOffset);
+        }
+        return format != null && format.byteRate() > 0 ? (double) dataBytes / format.byteRate() : null;
+    }
+    
+    private static long writePcmSilence(FileChannel out, long bytes, WavLayout format) throws IOException {
+        if (bytes <= 0) {
+            return 0;
+        }
+        // 8位PCM为无符号采样，静音值是0x80
+        byte fill = format.bitsPerSample() == 8 ? (byte) 0x80 : 0;
+        byte[] block = new byte[(int) Math.min(bytes, PCM_BUFFER_SIZE)];
+        Arrays.fill(block, fill);
+        long remaining = bytes;
+        while (remaining > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(block, 0, (int) Math.min(remaining, block.length));
+            while (buffer.hasRemaining()) {
+                remaining -= out.write(buffer);
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * 按增益缩放16位PCM采样（饱和截断）
+     */
+    private static void copyWithGain(FileChannel in, long position, long count, FileChannel out, double gain)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PCM_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long read = 0;
+        while (read < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - read));
+            int n = in.read(buffer, position + read);
+            if (n <= 0) {
+                break;
+            }
+            read += n;
+            buffer.flip();
+            for (int p = 0; p + 1 < buffer.limit(); p += 2) {
+                int scaled = (int) Math.round(buffer.getShort(p) * gain);
+                buffer.putShort(p, (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, scaled)));
+            }
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+    
+    /**
+     * 在输入流当前位置之后的一个缓冲区内查找第一个有效帧头（不消耗输入），未找到时返回0
+     */
+    private static int peekFrameHeader(InputStream in, byte[] block) throws IOException {
+        in.mark(block.length);
+        int length = in.readNBytes(block, 0, block.length);
+        in.reset();
+        for (int pos = 0; pos + 4 <= length; pos++) {
+            int header = readInt(block, pos);
+            if (Mp3Frame.parse(header) != null) {
+                return header;
+            }
+        }
+        return 0;
+    }
+    
+    private static int readInt(byte[] data, int pos) {
+        return ((data[pos] & 0xFF) << 24) | ((data[pos + 1] & 0xFF) << 16)
+                | ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+    }
+    
+    /**
+     * ID3v2标签长度（无标签时为0），只读取标签头，不消耗输入
+     */
+    private static long id3v2Length(InputStream in, long fileSize) throws IOException {
+        in.mark(10);
+        byte[] data = in.readNBytes(10);
+        in.reset();
+        if (data.length < 10 || data[0] != 'I' || data[1] != 'D' || data[2] != '3') {
+            return 0;
+        }
+        int size = ((data[6] & 0x7F) << 21) | ((data[7] & 0x7F) << 14) | ((data[8] & 0x7F) << 7) | (data[9] & 0x7F);
+        boolean hasFooter = (data[5] & 0x10) != 0;
+        return Math.min(fileSize, 10L + size + (hasFooter ? 10 : 0));
+    }
+    
+    /**
+     * 遍历RIFF块，定位fmt中的格式信息和data块位置
+     */
+    private static WavLayout readWavLayout(FileChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        in.read(header, 0);
+        if (header.position() < 12 || header.getInt(0) != 0x46464952 || header.getInt(8) != 0x45564157) {
+            return null;    // 不是 "RIFF....WAVE"
+        }
+        
+        int byteRate = 0;
+        int blockAlign = 1;
+        int bitsPerSample = 0;
+        long pos = 12;
+        ByteBuffer chunk = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        while (pos + 8 <= in.size()) {
+            chunk.clear();
+            in.read(chunk, pos);
+            int id = chunk.getInt(0);
+            long length = Integer.toUnsignedLong(chunk.getInt(4));
+            if (id == 0x20746D66) {         // "fmt "
+                byteRate = chunk.getInt(16);
+                blockAlign = Math.max(1, chunk.getShort(20));
+                bitsPerSample = chunk.getShort(22);
+            } else if (id == 0x61746164) {  // "data"
+                long dataOffset = pos + 8;
+                return new WavLayout(dataOffset, Math.min(length, in.size() - dataOffset),
+                        byteRate, blockAlign, bitsPerSample);
+            }
+            pos += 8 + length + (length & 1);
+        }
+        return null;
+    }
+    
+    private static long alignDown(long value, int alignment) {
+        return value - Math.floorMod(value, alignment);
+    }
+    
+    private static FileChannel openForWrite(Path target) throws IOException {
+        return FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    
+    private static void transferAll(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += in.transferTo(position + transferred, count - transferred, out);
+        }
+    }
+    
+    private static void copy(InputStream in, long count, FileChannel out, byte[] block) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            int n = in.read(block, 0, (int) Math.min(remaining, block.length));
+            if (n <= 0) {
+                break;
+            }
+            writeFully(out, block, n);
+            remaining -= n;
+        }
+    }
+    
+    private static void writeFully(FileChannel out, byte[] data, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+    
+    private record WavLayout(long dataOffset, long dataLength, int byteRate, int blockAlign, int bitsPerSample) {
+    }
+    
+    /**
+     * MPEG Layer III 帧信息
+     */
+    private record Mp3Frame(int length, double seconds) {
+        
+        static Mp3Frame parse(int header) {
+            if ((header & 0xFFE00000) != 0xFFE00000) {
+                return null;
+            }
+            int version = (header >> 19) & 0x3;
+            int layer = (header >> 17) & 0x3;
+            int bitrateIndex = (header >> 12) & 0xF;
+            int sampleRateIndex = (header >> 10) & 0x3;
+            int padding = (header >> 9) & 0x1;
+            if (version == 1 || layer != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            
+            boolean mpeg1 = version == 3;
+            int bitrate = (mpeg1 ? MPEG1_L3_BITRATES : MPEG2_L3_BITRATES)[bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+            int samplesPerFrame = mpeg1 ? 1152 : 576;
+            int length = samplesPerFrame / 8 * bitrate / sampleRate + padding;
+            return new Mp3Frame(length, (double) samplesPerFrame / sampleRate);
+        }
+    }
+    
+    /**
+     * 逐块扫描MP3帧头，统计帧数和时长（仅支持Layer III）；块边界可以落在帧中间
+     */
+    private static final class Mp3Scanner {
+        
+        private int window;
+        private int filled;
+        private long skip;
+        private int frames;
+        private double seconds;
+        
+        void scan(byte[] data, int length) {
+            int pos = 0;
+            while (pos < length) {
+                if (skip > 0) {
+                    int n = (int) Math.min(skip, length - pos);
+                    skip -= n;
+                    pos += n;
+                    continue;
+                }
+                // 不是有效帧头时向后滑动一个字节继续查找
+                window = (window << 8) | (data[pos++] & 0xFF);
+                filled = Math.min(filled + 1, 4);
+                if (filled < 4) {
+                    continue;
+                }
+                Mp3Frame frame = Mp3Frame.parse(window);
+                if (frame != null) {
+                    seconds += frame.seconds();
+                    frames++;
+                    skip = Math.max(0, frame.length() - 4);
+                    filled = 0;
+                }
+            }
+        }
+        
+        /**
+         * 累计时长（秒），没有解析到任何帧时返回-1
+         */
+        double seconds() {
+            return frames > 0 ? seconds : -1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.SynthesisProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 歌词分段器
+ * 优先在段落（空行分隔的歌曲段落）处切分，段落过长时再按句末标点/换行切分，
+ * 相邻的短段落会合并，保证每段不超过配置的最大字数
+ */
+@Component
+@RequiredArgsConstructor
+public class LyricsChunker {
+    
+    private static final Pattern SECTION_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern SENTENCE_END = Pattern.compile("[^。！？!?；;\\n]*[。！？!?；;\\n]+|[^。！？!?；;\\n]+$");
+    
+    private final SynthesisProperties synthesisProperties;
+    
+    /**
+     * 切分歌词；未启用分段或歌词不超过上限时返回单个分段
+     */
+    public List<String> split(String lyrics) {
+        SynthesisProperties.ChunkingConfig config = synthesisProperties.getChunking();
+        int maxChars = config.getMaxChunkChars();
+        if (lyrics == null || !config.isEnabled() || maxChars <= 0 || lyrics.length() <= maxChars) {
+            return lyrics == null ? List.of() : List.of(lyrics);
+        }
+        
+        List<String> pieces = new ArrayList<>();
+        for (String section : SECTION_BREAK.split(lyrics.trim())) {
+            String trimmed = section.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.length() <= maxChars) {
+                pieces.add(trimmed);
+            } else {
+                pieces.addAll(splitSentences(trimmed, maxChars));
+            }
+        }
+        return pack(pieces, maxChars);
+    }
+    
+    /**
+     * 将超长段落按句子切分，单句仍超长时按字数硬切
+     */
+    private static List<String> splitSentences(String section, int maxChars) {
+        List<String> sentences = new ArrayList<>();
+        Matcher matcher = SENTENCE_END.matcher(section);
+        while (matcher.find()) {
+            String sentence = matcher.group().trim();
+            if (sentence.isEmpty()) {
+                continue;
+            }
+            for (int start = 0; start < sentence.length(); start += maxChars) {
+                sentences.add(sentence.substring(start, Math.min(sentence.length(), start + maxChars)));
+            }
+        }
+        return pack(sentences, maxChars);
+    }
+    
+    /**
+     * 按顺序合并相邻的短片段，直到接近上限
+     */
+    private static List<String> pack(List<String> pieces, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String piece : pieces) {
+            if (current.length() > 0 && current.length() + 1 + piece.length() > maxChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append('\n');
+            }
+            current.append(piece);
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,327 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.SynthesisProperties;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import com.aisinger.synthesis.dto.SynthesisResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 合成结果缓存
+ * 以解析后的完整合成参数 + 引擎名的哈希为键，内存LRU + 磁盘两级缓存
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SynthesisCache {
+    
+    private static final String META_SUFFIX = ".json";
+    private static final int WRITE_LOCK_STRIPES = 64;
+    
+    private final SynthesisProperties synthesisProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong diskBytes = new AtomicLong();
+    
+    // 同一键的磁盘写入和淘汰串行执行，并发未命中时不会把同一目标文件重复计入容量
+    private final Object[] writeLocks = Stream.generate(Object::new).limit(WRITE_LOCK_STRIPES).toArray();
+    
+    private Map<String, SynthesisResult> memory;
+    private Path cacheDir;
+    
+    @PostConstruct
+    public void init() {
+        SynthesisProperties.CacheConfig config = synthesisProperties.getCache();
+        int maxEntries = Math.max(1, config.getMemoryEntries());
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SynthesisResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        cacheDir = Paths.get(config.getDirectory());
+        try {
+            Files.createDirectories(cacheDir);
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                diskBytes.set(files.mapToLong(this::sizeOf).sum());
+            }
+        } catch (IOException e) {
+            log.warn("初始化合成缓存目录失败: {}", cacheDir, e);
+        }
+        registerMetrics();
+    }
+    
+    private void registerMetrics() {
+        FunctionCounter.builder("aisinger.synthesis.cache.requests", memoryHits, AtomicLong::get)
+                .description("合成缓存查询次数").tag("result", "memory_hit").register(meterRegistry);
+        FunctionCounter.builder("aisinger.synthesis.cache.requests", diskHits, AtomicLong::get)
+                .description("合成缓存查询次数").tag("result", "disk_hit").register(meterRegistry);
+        FunctionCounter.builder("aisinger.synthesis.cache.requests", misses, AtomicLong::get)
+                .description("合成缓存查询次数").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("aisinger.synthesis.cache.hit.ratio", this, SynthesisCache::hitRatio)
+                .description("合成缓存累计命中率").register(meterRegistry);
+        Gauge.builder("aisinger.synthesis.cache.disk.bytes", diskBytes, AtomicLong::get)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+    
+    private double hitRatio() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    public boolean isEnabled() {
+        return synthesisProperties.getCache().isEnabled();
+    }
+    
+    /**
+     * 计算缓存键：对解析后的合成参数做规范化拼接后取SHA-256
+     */
+    public String keyOf(String engineName, SynthesisRequest request) {
+        String canonical = String.join("|",
+                engineName,
+                String.valueOf(request.getLyrics()),
+                String.valueOf(request.getNotes()),
+                String.valueOf(request.getDuration()),
+                String.valueOf(request.getVoiceId()),
+                String.valueOf(request.getModelPath()),
+                String.valueOf(request.getSpeakerId()),
+                String.valueOf(request.getTechniqueId()),
+                String.valueOf(request.getVibratoDepth()),
+                String.valueOf(request.getVibratoRate()),
+                String.valueOf(request.getBreathiness()),
+                String.valueOf(request.getTension()),
+                String.valueOf(request.getBrightness()),
+                String.valueOf(request.getPhonationType()),
+                String.valueOf(request.getEmotionId()),
+                String.valueOf(request.getEmotionIntensity()),
+                String.valueOf(request.getPitchVariance()),
+                String.valueOf(request.getEnergyMultiplier()),
+                String.valueOf(request.getTempoFactor()),
+                String.valueOf(request.getGenderFactor()),
+                String.valueOf(request.getPitchShift()),
+                String.valueOf(request.getSampleRate()),
+                String.valueOf(request.getOutputFormat()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+    
+    /**
+     * 查找缓存：先查内存，再查磁盘
+     */
+    public Optional<SynthesisResult> get(String key) {
+        SynthesisResult cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        
+        Path metaFile = cacheDir.resolve(key + META_SUFFIX);
+        if (Files.exists(metaFile)) {
+            try {
+                SynthesisResult result = objectMapper.readValue(metaFile.toFile(), SynthesisResult.class);
+                if (result.getAudioPath() == null || Files.exists(Paths.get(result.getAudioPath()))) {
+                    touch(metaFile);
+                    synchronized (memory) {
+                        memory.put(key, result);
+                    }
+                    diskHits.incrementAndGet();
+                    return Optional.of(result);
+                }
+            } catch (IOException e) {
+                log.warn("读取合成缓存失败: {}", metaFile, e);
+            }
+        }
+        
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+    
+    /**
+     * 写入缓存；如果结果带有本地音频文件，则移入缓存目录并改写访问URL
+     */
+    public SynthesisResult put(String key, SynthesisResult result) {
+        if (result == null || !result.isSuccess()) {
+            return result;
+        }
+        
+        SynthesisResult stored = result;
+        try {
+            synchronized (writeLockFor(key)) {
+                // 覆盖已有文件时只计入大小差
+                if (result.getAudioPath() != null) {
+                    Path source = Paths.get(result.getAudioPath());
+                    String fileName = key + extensionOf(source);
+                    Path target = cacheDir.resolve(fileName);
+                    long replacedAudio = sizeOf(target);
+                    Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+                    stored = result.toBuilder()
+                            .audioPath(target.toString())
+                            .audioUrl(synthesisProperties.getCache().getUrlPrefix() + "/" + fileName)
+                            .build();
+                    diskBytes.addAndGet(sizeOf(target) - replacedAudio);
+                }
+                Path metaFile = cacheDir.resolve(key + META_SUFFIX);
+                long replacedMeta = sizeOf(metaFile);
+                objectMapper.writeValue(metaFile.toFile(), stored);
+                diskBytes.addAndGet(sizeOf(metaFile) - replacedMeta);
+            }
+            evictDiskIfNeeded();
+        } catch (IOException e) {
+            log.warn("写入合成磁盘缓存失败: {}", key, e);
+        }
+        
+        synchronized (memory) {
+            memory.put(key, stored);
+        }
+        return stored;
+    }
+    
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("清空合成磁盘缓存失败", e);
+        }
+        diskBytes.set(0);
+    }
+    
+    /**
+     * 缓存统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", hitRatio());
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+        }
+        stats.put("diskBytes", diskBytes.get());
+        return stats;
+    }
+    
+    /**
+     * 磁盘容量超限时，按最后访问时间从旧到新淘汰
+     */
+    private void evictDiskIfNeeded() throws IOException {
+        long maxBytes = synthesisProperties.getCache().getDiskMaxMb() * 1024 * 1024;
+        if (diskBytes.get() <= maxBytes) {
+            return;
+        }
+        
+        List<Path> metaFiles;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            metaFiles = files.filter(p -> p.getFileName().toString().endsWith(META_SUFFIX))
+                    .sorted(Comparator.comparing(this::lastModified))
+                    .toList();
+        }
+        
+        for (Path metaFile : metaFiles) {
+            if (diskBytes.get() <= maxBytes) {
+                break;
+            }
+            String key = metaFile.getFileName().toString().replace(META_SUFFIX, "");
+            synchronized (writeLockFor(key)) {
+                try (Stream<Path> entries = Files.list(cacheDir)) {
+                    entries.filter(p -> p.getFileName().toString().startsWith(key))
+                            .forEach(this::deleteQuietly);
+                }
+            }
+            synchronized (memory) {
+                memory.remove(key);
+            }
+            log.debug("淘汰合成缓存: {}", key);
+        }
+    }
+    
+    private Object writeLockFor(String key) {
+        return writeLocks[Math.floorMod(key.hashCode(), WRITE_LOCK_STRIPES)];
+    }
+    
+    private void deleteQuietly(Path path) {
+        try {
+            long size = sizeOf(path);
+            if (Files.deleteIfExists(path)) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            log.warn("删除缓存文件失败: {}", path, e);
+        }
+    }
+    
+    private void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // 仅影响淘汰顺序
+        }
+    }
+    
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+    
+    private long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    private static String extensionOf(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot) : "";
+    }
+}
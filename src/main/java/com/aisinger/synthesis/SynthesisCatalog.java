@@ -0,0 +1,302 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.AiSingerProperties;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 合成参数目录
+ * 将引擎、歌手、技巧、情绪配置索引为按ID查找的不可变Map，配置变化时整体原子替换；
+ * 歌手+技巧+情绪组合解析后的参数模板按组合缓存，合成热路径只需一次Map查找
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SynthesisCatalog {
+    
+    private final AiSingerProperties aiSingerProperties;
+    private final List<SynthesisEngine> engines;
+    
+    private volatile Snapshot snapshot;
+    
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+    
+    /**
+     * 根据当前配置重建索引（原子替换）
+     */
+    public void refresh() {
+        Snapshot next = new Snapshot(
+                indexBy(engines, SynthesisEngine::getEngineName),
+                indexBy(aiSingerProperties.getVoices(), AiSingerProperties.VoiceConfig::getId),
+                indexBy(aiSingerProperties.getTechniques(), AiSingerProperties.TechniqueConfig::getId),
+                indexBy(aiSingerProperties.getEmotions(), AiSingerProperties.EmotionConfig::getId),
+                aiSingerProperties.getVoices().stream()
+                        .filter(AiSingerProperties.VoiceConfig::isEnabled)
+                        .toList(),
+                aiSingerProperties.getTechniques().stream()
+                        .filter(AiSingerProperties.TechniqueConfig::isEnabled)
+                        .toList(),
+                aiSingerProperties.getEmotions().stream()
+                        .filter(AiSingerProperties.EmotionConfig::isEnabled)
+                        .toList(),
+                new ConcurrentHashMap<>());
+        snapshot = next;
+        log.info("合成参数目录已加载: {} 个引擎, {} 个歌手, {} 种技巧, {} 种情绪",
+                next.engines().size(), next.voices().size(), next.techniques().size(), next.emotions().size());
+    }
+    
+    public SynthesisEngine getEngine(String engineName) {
+        return engineName != null ? snapshot.engines().get(engineName) : null;
+    }
+    
+    public AiSingerProperties.VoiceConfig getVoice(String voiceId) {
+        return voiceId != null ? snapshot.voices().get(voiceId) : null;
+    }
+    
+    public AiSingerProperties.TechniqueConfig getTechnique(String techniqueId) {
+        return techniqueId != null ? snapshot.techniques().get(techniqueId) : null;
+    }
+    
+    public AiSingerProperties.EmotionConfig getEmotion(String emotionId) {
+        return emotionId != null ? snapshot.emotions().get(emotionId) : null;
+    }
+    
+    public List<AiSingerProperties.VoiceConfig> getEnabledVoices() {
+        return snapshot.enabledVoices();
+    }
+    
+    public List<AiSingerProperties.TechniqueConfig> getEnabledTechniques() {
+        return snapshot.enabledTechniques();
+    }
+    
+    public List<AiSingerProperties.EmotionConfig> getEnabledEmotions() {
+        return snapshot.enabledEmotions();
+    }
+    
+    /**
+     * 将歌手、技巧、情绪配置应用到合成请求
+     * 结果只由配置决定时（指定了技巧，或音色参数仍为默认值）直接套用组合模板，否则逐项解析
+     */
+    public void applyParams(SynthesisRequest request) {
+        Snapshot current = snapshot;
+        AiSingerProperties.VoiceConfig voice = getVoice(request.getVoiceId());
+        AiSingerProperties.TechniqueConfig technique = getTechnique(request.getTechniqueId());
+        AiSingerProperties.EmotionConfig emotion = getEmotion(request.getEmotionId());
+        
+        boolean techniqueOverridesTone = technique != null && technique.getSynthesisParams() != null;
+        if (techniqueOverridesTone || hasDefaultTone(request)) {
+            // 请求中的ID有未知值时不缓存，模板缓存只包含目录中已有的组合，数量有上界
+            boolean resolved = (request.getVoiceId() == null || voice != null)
+                    && (request.getTechniqueId() == null || technique != null)
+                    && (request.getEmotionId() == null || emotion != null);
+            if (!resolved) {
+                ParamTemplate.of(voice, technique, emotion).applyTo(request);
+                return;
+            }
+            String key = idOf(voice, AiSingerProperties.VoiceConfig::getId)
+                    + "|" + idOf(technique, AiSingerProperties.TechniqueConfig::getId)
+                    + "|" + idOf(emotion, AiSingerProperties.EmotionConfig::getId);
+            current.templates()
+                    .computeIfAbsent(key, k -> ParamTemplate.of(voice, technique, emotion))
+                    .applyTo(request);
+            return;
+        }
+        
+        applyVoiceParams(request, voice);
+        applyTechniqueParams(request, technique);
+        applyEmotionParams(request, emotion);
+    }
+    
+    private static <T> String idOf(T config, Function<T, String> id) {
+        return config != null ? id.apply(config) : "";
+    }
+    
+    /**
+     * 音色相关参数是否仍为请求默认值
+     */
+    private static boolean hasDefaultTone(SynthesisRequest request) {
+        return Objects.equals(request.getVibratoDepth(), 50)
+                && Objects.equals(request.getVibratoRate(), 50)
+                && Objects.equals(request.getBreathiness(), 30)
+                && Objects.equals(request.getTension(), 50)
+                && Objects.equals(request.getBrightness(), 50)
+                && Objects.equals(request.getPhonationType(), "normal");
+    }
+    
+    /**
+     * 应用歌手配置参数
+     */
+    static void applyVoiceParams(SynthesisRequest request, AiSingerProperties.VoiceConfig voice) {
+        if (voice == null) return;
+        
+        // 设置模型路径
+        if (request.getModelPath() == null && voice.getModel() != null) {
+            request.setModelPath(voice.getModel().getPath());
+            request.setSpeakerId(voice.getModel().getSpeakerId());
+        }
+        
+        // 应用默认参数（如果请求中没有指定）
+        if (voice.getDefaults() != null) {
+            var defaults = voice.getDefaults();
+            if (Objects.equals(request.getVibratoDepth(), 50)) {
+                request.setVibratoDepth(defaults.getVibratoDepth());
+            }
+            if (Objects.equals(request.getVibratoRate(), 50)) {
+                request.setVibratoRate(defaults.getVibratoRate());
+            }
+            if (Objects.equals(request.getBreathiness(), 30)) {
+                request.setBreathiness(defaults.getBreathiness());
+            }
+            if (Objects.equals(request.getTension(), 50)) {
+                request.setTension(defaults.getTension());
+            }
+            if (Objects.equals(request.getBrightness(), 50)) {
+                request.setBrightness(defaults.getBrightness());
+            }
+        }
+        
+        log.debug("应用歌手配置: {}", voice.getName());
+    }
+    
+    /**
+     * 应用技巧配置参数
+     */
+    static void applyTechniqueParams(SynthesisRequest request, AiSingerProperties.TechniqueConfig technique) {
+        if (technique == null) return;
+        
+        var params = technique.getSynthesisParams();
+        if (params != null) {
+            // 技巧参数覆盖默认值
+            request.setVibratoDepth(params.getVibratoDepth());
+            request.setVibratoRate(params.getVibratoRate());
+            request.setBreathiness(params.getBreathiness());
+            request.setTension(params.getTension());
+            request.setBrightness(params.getBrightness());
+            request.setPhonationType(params.getPhonationType());
+        }
+        
+        log.debug("应用技巧配置: {}", technique.getName());
+    }
+    
+    /**
+     * 应用情绪配置参数
+     */
+    static void applyEmotionParams(SynthesisRequest request, AiSingerProperties.EmotionConfig emotion) {
+        if (emotion == null) return;
+        
+        var params = emotion.getSynthesisParams();
+        if (params != null) {
+            request.setEmotionIntensity(params.getIntensity());
+            request.setPitchVariance(params.getPitchVariance());
+            request.setEnergyMultiplier(params.getEnergyMultiplier());
+            request.setTempoFactor(params.getTempoFactor());
+            
+            // 修改器应用到现有参数
+            int adjustedVibrato = (int) (request.getVibratoDepth() * params.getVibratoDepthModifier());
+            request.setVibratoDepth(Math.min(100, Math.max(0, adjustedVibrato)));
+            
+            int adjustedTension = (int) (request.getTension() * params.getTensionModifier());
+            request.setTension(Math.min(100, Math.max(0, adjustedTension)));
+        }
+        
+        log.debug("应用情绪配置: {}", emotion.getName());
+    }
+    
+    private static <T> Map<String, T> indexBy(List<T> items, Function<T, String> idOf) {
+        Map<String, T> index = new LinkedHashMap<>();
+        for (T item : items) {
+            String id = idOf.apply(item);
+            if (id != null) {
+                // 与原先 findFirst 语义一致：重复ID以第一个为准
+                index.putIfAbsent(id, item);
+            }
+        }
+        return Map.copyOf(index);
+    }
+    
+    /**
+     * 目录快照（除模板缓存外不可变）
+     */
+    private record Snapshot(
+            Map<String, SynthesisEngine> engines,
+            Map<String, AiSingerProperties.VoiceConfig> voices,
+            Map<String, AiSingerProperties.TechniqueConfig> techniques,
+            Map<String, AiSingerProperties.EmotionConfig> emotions,
+            List<AiSingerProperties.VoiceConfig> enabledVoices,
+            List<AiSingerProperties.TechniqueConfig> enabledTechniques,
+            List<AiSingerProperties.EmotionConfig> enabledEmotions,
+            Map<String, ParamTemplate> templates) {
+    }
+    
+    /**
+     * 歌手+技巧+情绪组合解析后的参数模板
+     */
+    private record ParamTemplate(
+            boolean hasModel,
+            String modelPath,
+            Integer speakerId,
+            Integer vibratoDepth,
+            Integer vibratoRate,
+            Integer breathiness,
+            Integer tension,
+            Integer brightness,
+            String phonationType,
+            boolean hasEmotion,
+            Integer emotionIntensity,
+            Double pitchVariance,
+            Double energyMultiplier,
+            Double tempoFactor) {
+        
+        /**
+         * 对一个默认请求逐项应用配置，得到组合模板
+         */
+        static ParamTemplate of(AiSingerProperties.VoiceConfig voice,
+                                AiSingerProperties.TechniqueConfig technique,
+                                AiSingerProperties.EmotionConfig emotion) {
+            SynthesisRequest probe = SynthesisRequest.builder().build();
+            applyVoiceParams(probe, voice);
+            applyTechniqueParams(probe, technique);
+            applyEmotionParams(probe, emotion);
+            return new ParamTemplate(
+                    voice != null && voice.getModel() != null,
+                    probe.getModelPath(), probe.getSpeakerId(),
+                    probe.getVibratoDepth(), probe.getVibratoRate(), probe.getBreathiness(),
+                    probe.getTension(), probe.getBrightness(), probe.getPhonationType(),
+                    emotion != null && emotion.getSynthesisParams() != null,
+                    probe.getEmotionIntensity(), probe.getPitchVariance(),
+                    probe.getEnergyMultiplier(), probe.getTempoFactor());
+        }
+        
+        void applyTo(SynthesisRequest request) {
+            if (hasModel && request.getModelPath() == null) {
+                request.setModelPath(modelPath);
+                request.setSpeakerId(speakerId);
+            }
+            request.setVibratoDepth(vibratoDepth);
+            request.setVibratoRate(vibratoRate);
+            request.setBreathiness(breathiness);
+            request.setTension(tension);
+            request.setBrightness(brightness);
+            request.setPhonationType(phonationType);
+            if (hasEmotion) {
+                request.setEmotionIntensity(emotionIntensity);
+                request.setPitchVariance(pitchVariance);
+                request.setEnergyMultiplier(energyMultiplier);
+                request.setTempoFactor(tempoFactor);
+            }
+        }
+    }
+}
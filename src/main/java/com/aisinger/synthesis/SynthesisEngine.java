@@ -3,6 +3,11 @@ package com.aisinger.synthesis;
 import com.aisinger.synthesis.dto.SynthesisRequest;
 import com.aisinger.synthesis.dto.SynthesisResult;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 /**
  * 声音合成引擎接口
  * 所有合成引擎（So-VITS-SVC, VITS, Diff-SVC等）都需要实现此接口
@@ -26,6 +31,44 @@ public interface SynthesisEngine {
      */
     SynthesisResult synthesize(SynthesisRequest request);
     
+    /**
+     * 合成结果是否为本地音频文件（audioPath）；只有输出本地文件的引擎才能分段合成后拼接
+     */
+    default boolean producesLocalAudio() {
+        return false;
+    }
+    
+    /**
+     * 是否支持流式合成（边接收边输出音频）
+     */
+    default boolean supportsStreaming() {
+        return false;
+    }
+    
+    /**
+     * 流式合成：音频数据到达时逐块写入输出流，同时落盘
+     * 默认实现先完整合成，再把生成的本地文件写入输出流；支持流式的引擎应覆盖此方法
+     * @param request 合成请求
+     * @param out 客户端输出流（可为空，仅落盘）
+     * @return 合成结果
+     */
+    default SynthesisResult synthesizeStream(SynthesisRequest request, OutputStream out) {
+        SynthesisResult result = synthesize(request);
+        if (out == null || !result.isSuccess()) {
+            return result;
+        }
+        if (result.getAudioPath() == null) {
+            return SynthesisResult.error("合成结果没有本地音频文件，无法流式输出: " + getEngineName());
+        }
+        try {
+            Files.copy(Paths.get(result.getAudioPath()), out);
+            out.flush();
+        } catch (IOException e) {
+            return SynthesisResult.error("输出合成音频失败: " + e.getMessage());
+        }
+        return result;
+    }
+    
     /**
      * 获取引擎支持的功能
      */
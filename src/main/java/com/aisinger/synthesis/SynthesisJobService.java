@@ -0,0 +1,205 @@
+package com.aisinger.synthesis;
+
+import com.aisinger.config.SynthesisProperties;
+import com.aisinger.entity.SynthesisProviderConfig;
+import com.aisinger.service.SynthesisProviderConfigService;
+import com.aisinger.synthesis.dto.SynthesisJob;
+import com.aisinger.synthesis.dto.SynthesisRequest;
+import com.aisinger.synthesis.dto.SynthesisResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步合成任务服务
+ * 提交后立即返回任务ID，由每个引擎独立的有界线程池执行合成，
+ * 线程池并发数跟随 SynthesisProviderConfig.maxConcurrent
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SynthesisJobService {
+    
+    private final SynthesisService synthesisService;
+    private final SynthesisCatalog synthesisCatalog;
+    private final SynthesisProperties synthesisProperties;
+    private final SynthesisProviderConfigService providerConfigService;
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, SynthesisJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    
+    /**
+     * 使用当前活动引擎提交合成任务
+     */
+    public SynthesisJob submit(SynthesisRequest request) {
+        return submit(synthesisProperties.getActiveEngine(), request);
+    }
+    
+    /**
+     * 使用指定引擎提交合成任务
+     * 引擎名须是已注册且可用的引擎，线程池只为注册表中的引擎创建
+     */
+    public SynthesisJob submit(String engineName, SynthesisRequest request) {
+        SynthesisEngine engine = synthesisCatalog.getEngine(engineName);
+        if (engine == null) {
+            throw new RuntimeException("未找到合成引擎: " + engineName);
+        }
+        if (!engine.isAvailable()) {
+            throw new RuntimeException("合成引擎不可用: " + engineName);
+        }
+        evictExpiredJobs();
+        
+        SynthesisJob job = SynthesisJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .engine(engineName)
+                .status(SynthesisJob.STATUS_QUEUED)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        
+        ThreadPoolExecutor executor = executorFor(engineName);
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> runJob(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new RuntimeException("合成任务队列已满，请稍后重试: " + engineName);
+        }
+        
+        log.info("提交合成任务 [{}]，引擎: {}，排队: {}", job.getJobId(), engineName, executor.getQueue().size());
+        return job;
+    }
+    
+    /**
+     * 查询任务
+     */
+    public Optional<SynthesisJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+    
+    /**
+     * 获取各引擎线程池状态
+     */
+    public Map<String, Object> getExecutorStats() {
+        Map<String, Object> stats = new HashMap<>();
+        executors.forEach((engine, executor) -> {
+            Map<String, Object> info = new HashMap<>();
+            info.put("maxConcurrent", executor.getMaximumPoolSize());
+            info.put("active", executor.getActiveCount());
+            info.put("queued", executor.getQueue().size());
+            info.put("completed", executor.getCompletedTaskCount());
+            stats.put(engine, info);
+        });
+        return stats;
+    }
+    
+    private void runJob(SynthesisJob job, SynthesisRequest request) {
+        job.setStatus(SynthesisJob.STATUS_RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        try {
+            SynthesisResult result = synthesisService.synthesizeWithEngine(job.getEngine(), request);
+            job.setResult(result);
+            if (result.isSuccess()) {
+                job.setStatus(SynthesisJob.STATUS_SUCCEEDED);
+            } else {
+                job.setErrorMessage(result.getErrorMessage());
+                job.setStatus(SynthesisJob.STATUS_FAILED);
+            }
+        } catch (Exception e) {
+            log.error("合成任务 [{}] 执行失败", job.getJobId(), e);
+            job.setErrorMessage("合成失败: " + e.getMessage());
+            job.setStatus(SynthesisJob.STATUS_FAILED);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * 获取引擎对应的线程池，并按最新的提供商配置调整并发数
+     */
+    private ThreadPoolExecutor executorFor(String engineName) {
+        int concurrency = resolveConcurrency(engineName);
+        ThreadPoolExecutor executor = executors.computeIfAbsent(engineName, name -> newExecutor(name, concurrency));
+        
+        if (executor.getMaximumPoolSize() != concurrency) {
+            synchronized (executor) {
+                // 扩容时先调大max，缩容时先调小core，避免 core > max 抛异常
+                if (concurrency > executor.getMaximumPoolSize()) {
+                    executor.setMaximumPoolSize(concurrency);
+                    executor.setCorePoolSize(concurrency);
+                } else {
+                    executor.setCorePoolSize(concurrency);
+                    executor.setMaximumPoolSize(concurrency);
+                }
+            }
+            log.info("引擎 [{}] 合成并发数调整为 {}", engineName, concurrency);
+        }
+        return executor;
+    }
+    
+    /**
+     * 新建引擎线程池，并把排队数和执行中任务数注册为指标
+     */
+    private ThreadPoolExecutor newExecutor(String engineName, int concurrency) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(synthesisProperties.getJobs().getQueueCapacity()),
+                namedThreadFactory("synthesis-" + engineName));
+        Gauge.builder("aisinger.synthesis.jobs.queued", executor, e -> e.getQueue().size())
+                .description("排队中的合成任务数").tag("engine", engineName).register(meterRegistry);
+        Gauge.builder("aisinger.synthesis.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("执行中的合成任务数").tag("engine", engineName).register(meterRegistry);
+        return executor;
+    }
+    
+    private int resolveConcurrency(String engineName) {
+        Integer maxConcurrent = providerConfigService.getConfigByProvider(engineName)
+                .map(SynthesisProviderConfig::getMaxConcurrent)
+                .orElse(null);
+        if (maxConcurrent == null || maxConcurrent < 1) {
+            return Math.max(1, synthesisProperties.getJobs().getDefaultConcurrency());
+        }
+        return maxConcurrent;
+    }
+    
+    /**
+     * 清理超过保留期的已完成任务
+     */
+    private void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(synthesisProperties.getJobs().getRetentionMinutes());
+        jobs.values().removeIf(job -> job.isFinished()
+                && job.getFinishedAt() != null
+                && job.getFinishedAt().isBefore(cutoff));
+    }
+    
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+}
@@ -1,17 +1,36 @@
 package com.aisinger.synthesis;
 
 import com.aisinger.config.AiSingerProperties;
+import com.aisinger.config.AppMetrics;
 import com.aisinger.config.SynthesisProperties;
+import com.aisinger.service.AdmissionRejectedException;
+import com.aisinger.service.ProviderAdmission;
 import com.aisinger.synthesis.dto.SynthesisRequest;
 import com.aisinger.synthesis.dto.SynthesisResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * 声音合成服务
@@ -23,8 +42,33 @@ import java.util.Optional;
 public class SynthesisService {
     
     private final SynthesisProperties synthesisProperties;
-    private final AiSingerProperties aiSingerProperties;
     private final List<SynthesisEngine> engines;
+    private final SynthesisCatalog synthesisCatalog;
+    private final SynthesisCache synthesisCache;
+    private final LyricsChunker lyricsChunker;
+    private final AudioStitcher audioStitcher;
+    private final ProviderAdmission providerAdmission;
+    private final AppMetrics appMetrics;
+    
+    private static final String BUSY_PREFIX = "合成服务繁忙，请稍后重试";
+    
+    private ExecutorService chunkExecutor;
+    
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, synthesisProperties.getChunking().getParallelism());
+        AtomicInteger counter = new AtomicInteger();
+        chunkExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "synthesis-chunk-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
     
     /**
      * 使用当前活动引擎进行合成
@@ -34,127 +78,343 @@ public class SynthesisService {
         return synthesizeWithEngine(activeEngine, request);
     }
     
+    /**
+     * 计算请求的合成缓存键：与合成时一致，先应用歌手、技巧、情绪配置再取键；不修改传入的请求
+     */
+    public String cacheKeyOf(String engineName, SynthesisRequest request) {
+        SynthesisRequest resolved = request.toBuilder().build();
+        synthesisCatalog.applyParams(resolved);
+        return synthesisCache.keyOf(engineName, resolved);
+    }
+    
     /**
      * 使用指定引擎进行合成
      */
     public SynthesisResult synthesizeWithEngine(String engineName, SynthesisRequest request) {
-        Optional<SynthesisEngine> engine = engines.stream()
-                .filter(e -> e.getEngineName().equals(engineName))
-                .findFirst();
+        SynthesisEngine engine = synthesisCatalog.getEngine(engineName);
         
-        if (engine.isEmpty()) {
+        if (engine == null) {
             return SynthesisResult.error("未找到合成引擎: " + engineName);
         }
         
-        if (!engine.get().isAvailable()) {
+        if (!engine.isAvailable()) {
             return SynthesisResult.error("合成引擎不可用: " + engineName);
         }
         
-        // 应用配置中的歌手参数
-        applyVoiceParams(request);
+        // 应用配置中的歌手、技巧、情绪参数
+        synthesisCatalog.applyParams(request);
         
-        // 应用配置中的技巧参数
-        applyTechniqueParams(request);
+        // 长歌词切分后并行合成；引擎不输出本地文件时无法拼接，整段交给引擎
+        List<String> chunks = splitLyrics(engine, request);
+        if (chunks.size() > 1) {
+            return synthesizeChunked(engineName, engine, request, chunks);
+        }
+        return synthesizeResolved(engineName, engine, request);
+    }
+    
+    private List<String> splitLyrics(SynthesisEngine engine, SynthesisRequest request) {
+        if (!engine.producesLocalAudio()) {
+            return List.of(request.getLyrics());
+        }
+        return lyricsChunker.split(request.getLyrics());
+    }
+    
+    /**
+     * 合成已解析参数的请求（带缓存）
+     */
+    private SynthesisResult synthesizeResolved(String engineName, SynthesisEngine engine, SynthesisRequest request) {
+        if (!synthesisCache.isEnabled()) {
+            log.info("使用引擎 [{}] 进行合成", engineName);
+            return invokeEngine(engineName, () -> engine.synthesize(request));
+        }
         
-        // 应用配置中的情绪参数
-        applyEmotionParams(request);
+        // 相同的解析后参数直接复用已合成的音频
+        String cacheKey = synthesisCache.keyOf(engineName, request);
+        Optional<SynthesisResult> cached = synthesisCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("命中合成缓存 [{}]，引擎: {}", cacheKey, engineName);
+            return cached.get();
+        }
         
         log.info("使用引擎 [{}] 进行合成", engineName);
-        return engine.get().synthesize(request);
-    }
-    
-    /**
-     * 应用歌手配置参数
-     */
-    private void applyVoiceParams(SynthesisRequest request) {
-        if (request.getVoiceId() == null) return;
-        
-        aiSingerProperties.getVoices().stream()
-                .filter(v -> v.getId().equals(request.getVoiceId()))
-                .findFirst()
-                .ifPresent(voice -> {
-                    // 设置模型路径
-                    if (request.getModelPath() == null && voice.getModel() != null) {
-                        request.setModelPath(voice.getModel().getPath());
-                        request.setSpeakerId(voice.getModel().getSpeakerId());
-                    }
-                    
-                    // 应用默认参数（如果请求中没有指定）
-                    if (voice.getDefaults() != null) {
-                        var defaults = voice.getDefaults();
-                        if (request.getVibratoDepth() == 50) {
-                            request.setVibratoDepth(defaults.getVibratoDepth());
-                        }
-                        if (request.getVibratoRate() == 50) {
-                            request.setVibratoRate(defaults.getVibratoRate());
-                        }
-                        if (request.getBreathiness() == 30) {
-                            request.setBreathiness(defaults.getBreathiness());
-                        }
-                        if (request.getTension() == 50) {
-                            request.setTension(defaults.getTension());
-                        }
-                        if (request.getBrightness() == 50) {
-                            request.setBrightness(defaults.getBrightness());
-                        }
-                    }
-                    
-                    log.debug("应用歌手配置: {}", voice.getName());
-                });
-    }
-    
-    /**
-     * 应用技巧配置参数
-     */
-    private void applyTechniqueParams(SynthesisRequest request) {
-        if (request.getTechniqueId() == null) return;
-        
-        aiSingerProperties.getTechniques().stream()
-                .filter(t -> t.getId().equals(request.getTechniqueId()))
-                .findFirst()
-                .ifPresent(technique -> {
-                    var params = technique.getSynthesisParams();
-                    if (params != null) {
-                        // 技巧参数覆盖默认值
-                        request.setVibratoDepth(params.getVibratoDepth());
-                        request.setVibratoRate(params.getVibratoRate());
-                        request.setBreathiness(params.getBreathiness());
-                        request.setTension(params.getTension());
-                        request.setBrightness(params.getBrightness());
-                        request.setPhonationType(params.getPhonationType());
-                    }
-                    
-                    log.debug("应用技巧配置: {}", technique.getName());
-                });
-    }
-    
-    /**
-     * 应用情绪配置参数
-     */
-    private void applyEmotionParams(SynthesisRequest request) {
-        if (request.getEmotionId() == null) return;
-        
-        aiSingerProperties.getEmotions().stream()
-                .filter(e -> e.getId().equals(request.getEmotionId()))
-                .findFirst()
-                .ifPresent(emotion -> {
-                    var params = emotion.getSynthesisParams();
-                    if (params != null) {
-                        request.setEmotionIntensity(params.getIntensity());
-                        request.setPitchVariance(params.getPitchVariance());
-                        request.setEnergyMultiplier(params.getEnergyMultiplier());
-                        request.setTempoFactor(params.getTempoFactor());
-                        
-                        // 修改器应用到现有参数
-                        int adjustedVibrato = (int) (request.getVibratoDepth() * params.getVibratoDepthModifier());
-                        request.setVibratoDepth(Math.min(100, Math.max(0, adjustedVibrato)));
-                        
-                        int adjustedTension = (int) (request.getTension() * params.getTensionModifier());
-                        request.setTension(Math.min(100, Math.max(0, adjustedTension)));
-                    }
-                    
-                    log.debug("应用情绪配置: {}", emotion.getName());
-                });
+        return synthesisCache.put(cacheKey, invokeEngine(engineName, () -> engine.synthesize(request)));
+    }
+    
+    /**
+     * 在引擎的准入许可内调用引擎；排队已满或等待超时时返回明确的繁忙错误，而不是把请求压到提供商上
+     */
+    private SynthesisResult invokeEngine(String engineName, Supplier<SynthesisResult> call) {
+        try (ProviderAdmission.Permit permit = providerAdmission.acquireEngine(engineName)) {
+            return timed(engineName, call);
+        } catch (AdmissionRejectedException e) {
+            return rejected(engineName, e);
+        }
+    }
+    
+    /**
+     * 调用引擎并记录耗时和结果指标；排队等待准入的时间不计入引擎耗时
+     */
+    private SynthesisResult timed(String engineName, Supplier<SynthesisResult> call) {
+        long start = System.nanoTime();
+        SynthesisResult result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            appMetrics.recordSynthesis(engineName, System.nanoTime() - start, AppMetrics.OUTCOME_ERROR, 0);
+            appMetrics.recordError("synthesis", engineName, AppMetrics.causeOf(e));
+            throw e;
+        }
+        if (result.isSuccess()) {
+            appMetrics.recordSynthesis(engineName, System.nanoTime() - start, AppMetrics.OUTCOME_SUCCESS,
+                    audioBytesOf(result));
+        } else {
+            appMetrics.recordSynthesis(engineName, System.nanoTime() - start, AppMetrics.OUTCOME_ERROR, 0);
+            appMetrics.recordError("synthesis", engineName, "engine_error");
+        }
+        return result;
+    }
+    
+    private SynthesisResult rejected(String engineName, AdmissionRejectedException e) {
+        log.warn("合成引擎 [{}] 准入被拒绝: {}", engineName, e.getMessage());
+        appMetrics.recordError("synthesis", engineName, AppMetrics.OUTCOME_REJECTED);
+        return SynthesisResult.error(BUSY_PREFIX + "（" + e.getMessage() + "）");
+    }
+    
+    private static long audioBytesOf(SynthesisResult result) {
+        if (result.getAudioPath() == null) {
+            return 0;
+        }
+        try {
+            return Files.size(Paths.get(result.getAudioPath()));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * 分段并行合成：各分段独立合成（各自命中缓存），再按原顺序拼接为一个音频文件
+     */
+    private SynthesisResult synthesizeChunked(String engineName, SynthesisEngine engine,
+                                              SynthesisRequest request, List<String> chunks) {
+        String cacheKey = synthesisCache.isEnabled() ? synthesisCache.keyOf(engineName, request) : null;
+        if (cacheKey != null) {
+            Optional<SynthesisResult> cached = synthesisCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.info("命中合成缓存 [{}]，引擎: {}", cacheKey, engineName);
+                return cached.get();
+            }
+        }
+        
+        long startTime = System.currentTimeMillis();
+        int totalChars = chunks.stream().mapToInt(String::length).sum();
+        log.info("歌词分为 {} 段并行合成，引擎: {}", chunks.size(), engineName);
+        
+        List<CompletableFuture<SynthesisResult>> futures = new ArrayList<>();
+        for (String chunk : chunks) {
+            SynthesisRequest chunkRequest = request.toBuilder()
+                    .lyrics(chunk)
+                    .duration(request.getDuration() != null
+                            ? request.getDuration() * chunk.length() / totalChars : null)
+                    .build();
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> synthesizeResolved(engineName, engine, chunkRequest), chunkExecutor));
+        }
+        
+        List<SynthesisResult> parts = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            SynthesisResult part;
+            try {
+                part = futures.get(i).join();
+            } catch (CompletionException e) {
+                part = SynthesisResult.error(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+            if (!part.isSuccess()) {
+                futures.forEach(f -> f.cancel(false));
+                return SynthesisResult.error("第" + (i + 1) + "段合成失败: " + part.getErrorMessage());
+            }
+            parts.add(part);
+        }
+        
+        SynthesisResult result = stitch(engineName, parts, System.currentTimeMillis() - startTime);
+        return cacheKey != null ? synthesisCache.put(cacheKey, result) : result;
+    }
+    
+    /**
+     * 按顺序拼接分段结果；任一分段没有本地文件时无法拼接，返回错误而不是只含第一段的结果
+     */
+    private SynthesisResult stitch(String engineName, List<SynthesisResult> parts, long elapsedMs) {
+        if (parts.stream().anyMatch(p -> p.getAudioPath() == null)) {
+            return SynthesisResult.error("分段合成结果没有本地音频文件，无法拼接: " + engineName);
+        }
+        
+        SynthesisResult first = parts.get(0);
+        double summedDuration = parts.stream()
+                .mapToDouble(p -> p.getDuration() != null ? p.getDuration() : 0.0)
+                .sum();
+        
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("chunks", parts.size());
+        metadata.put("chunkUrls", parts.stream().map(SynthesisResult::getAudioUrl).toList());
+        
+        String format = first.getFormat() != null ? first.getFormat() : "mp3";
+        String fileName = "stitched_" + UUID.randomUUID() + "." + format;
+        Path outputPath = Paths.get("target/audio").resolve(fileName);
+        try {
+            Double duration = audioStitcher.stitch(
+                    parts.stream().map(p -> Paths.get(p.getAudioPath())).toList(), outputPath, format);
+            log.info("分段音频拼接完成: {} ({} 段)", outputPath, parts.size());
+            return SynthesisResult.builder()
+                    .success(true)
+                    .audioUrl("/audio/" + fileName)
+                    .audioPath(outputPath.toString())
+                    .format(format)
+                    .duration(duration != null ? duration : summedDuration)
+                    .sampleRate(first.getSampleRate())
+                    .engine(engineName)
+                    .processingTimeMs(elapsedMs)
+                    .message("合成成功")
+                    .metadata(metadata)
+                    .build();
+        } catch (IOException e) {
+            log.error("分段音频拼接失败", e);
+            return SynthesisResult.error("音频拼接失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 打开流式合成会话：引擎校验、分段合成、缓存命中和准入许可都在响应提交前完成，
+     * 调用方据此返回错误状态或开始输出音频；会话持有的准入许可在 close 时归还
+     */
+    public StreamSession openStream(String engineName, SynthesisRequest request) {
+        SynthesisEngine engine = synthesisCatalog.getEngine(engineName);
+        
+        if (engine == null) {
+            return StreamSession.failed(HttpStatus.NOT_FOUND, "未找到合成引擎: " + engineName);
+        }
+        
+        if (!engine.isAvailable()) {
+            return StreamSession.failed(HttpStatus.SERVICE_UNAVAILABLE, "合成引擎不可用: " + engineName);
+        }
+        
+        if (!engine.producesLocalAudio()) {
+            return StreamSession.failed(HttpStatus.NOT_IMPLEMENTED, "合成引擎不输出音频文件，不支持流式合成: " + engineName);
+        }
+        
+        synthesisCatalog.applyParams(request);
+        
+        // 超长歌词先分段并行合成，拼接完成后再输出
+        List<String> chunks = splitLyrics(engine, request);
+        if (chunks.size() > 1) {
+            return StreamSession.ready(synthesizeChunked(engineName, engine, request, chunks));
+        }
+        
+        String cacheKey = synthesisCache.isEnabled() ? synthesisCache.keyOf(engineName, request) : null;
+        if (cacheKey != null) {
+            Optional<SynthesisResult> cached = synthesisCache.get(cacheKey);
+            if (cached.isPresent() && cached.get().getAudioPath() != null) {
+                log.info("命中合成缓存 [{}]，流式输出缓存文件", cacheKey);
+                return StreamSession.ready(cached.get());
+            }
+        }
+        
+        if (!engine.supportsStreaming()) {
+            log.info("使用引擎 [{}] 进行合成（不支持流式，合成后输出）", engineName);
+            SynthesisResult result = invokeEngine(engineName, () -> engine.synthesize(request));
+            return StreamSession.ready(cacheKey != null ? synthesisCache.put(cacheKey, result) : result);
+        }
+        
+        ProviderAdmission.Permit permit;
+        try {
+            permit = providerAdmission.acquireEngine(engineName);
+        } catch (AdmissionRejectedException e) {
+            return StreamSession.failed(HttpStatus.SERVICE_UNAVAILABLE, rejected(engineName, e).getErrorMessage());
+        }
+        log.info("使用引擎 [{}] 进行流式合成", engineName);
+        return new StreamSession(null, null, null, out -> {
+            SynthesisResult result = timed(engineName, () -> engine.synthesizeStream(request, out));
+            return cacheKey != null ? synthesisCache.put(cacheKey, result) : result;
+        }, permit);
+    }
+    
+    /**
+     * 流式合成会话
+     * failure 非空时尚未输出任何内容，调用方应返回对应的错误状态；
+     * 否则 writeTo 输出音频，开始输出后的失败以 IOException 抛出，由容器中断连接而不是正常结束响应
+     */
+    public static final class StreamSession implements AutoCloseable {
+        
+        private final HttpStatus failureStatus;
+        private final String failure;
+        private final SynthesisResult ready;
+        private final StreamWriter writer;
+        private final ProviderAdmission.Permit permit;
+        
+        private StreamSession(HttpStatus failureStatus, String failure, SynthesisResult ready,
+                              StreamWriter writer, ProviderAdmission.Permit permit) {
+            this.failureStatus = failureStatus;
+            this.failure = failure;
+            this.ready = ready;
+            this.writer = writer;
+            this.permit = permit;
+        }
+        
+        private static StreamSession failed(HttpStatus status, String message) {
+            return new StreamSession(status, message, null, null, null);
+        }
+        
+        /**
+         * 已合成完成的结果（分段拼接、缓存命中或非流式引擎）
+         */
+        private static StreamSession ready(SynthesisResult result) {
+            if (!result.isSuccess()) {
+                HttpStatus status = result.getErrorMessage() != null && result.getErrorMessage().contains(BUSY_PREFIX)
+                        ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_GATEWAY;
+                return failed(status, result.getErrorMessage());
+            }
+            if (result.getAudioPath() == null) {
+                return failed(HttpStatus.BAD_GATEWAY, "合成结果没有本地音频文件");
+            }
+            return new StreamSession(null, null, result, null, null);
+        }
+        
+        public boolean isFailed() {
+            return failure != null;
+        }
+        
+        public HttpStatus getFailureStatus() {
+            return failureStatus;
+        }
+        
+        public String getFailure() {
+            return failure;
+        }
+        
+        public SynthesisResult writeTo(OutputStream out) throws IOException {
+            if (isFailed()) {
+                throw new IllegalStateException(failure);
+            }
+            if (ready != null) {
+                Files.copy(Paths.get(ready.getAudioPath()), out);
+                return ready;
+            }
+            SynthesisResult result = writer.write(out);
+            if (!result.isSuccess()) {
+                throw new IOException("流式合成中断: " + result.getErrorMessage());
+            }
+            return result;
+        }
+        
+        @Override
+        public void close() {
+            if (permit != null) {
+                permit.close();
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface StreamWriter {
+        SynthesisResult write(OutputStream out) throws IOException;
     }
     
     /**
@@ -178,30 +438,45 @@ public class SynthesisService {
         return result;
     }
     
+    /**
+     * 获取合成缓存统计
+     */
+    public Map<String, Object> getCacheStats() {
+        return synthesisCache.getStats();
+    }
+    
+    /**
+     * 清空合成缓存
+     */
+    public void clearCache() {
+        synthesisCache.clear();
+    }
+    
     /**
      * 获取配置化的歌手列表
      */
     public List<AiSingerProperties.VoiceConfig> getConfiguredVoices() {
-        return aiSingerProperties.getVoices().stream()
-                .filter(AiSingerProperties.VoiceConfig::isEnabled)
-                .toList();
+        return synthesisCatalog.getEnabledVoices();
     }
     
     /**
      * 获取配置化的技巧列表
      */
     public List<AiSingerProperties.TechniqueConfig> getConfiguredTechniques() {
-        return aiSingerProperties.getTechniques().stream()
-                .filter(AiSingerProperties.TechniqueConfig::isEnabled)
-                .toList();
+        return synthesisCatalog.getEnabledTechniques();
     }
     
     /**
      * 获取配置化的情绪列表
      */
     public List<AiSingerProperties.EmotionConfig> getConfiguredEmotions() {
-        return aiSingerProperties.getEmotions().stream()
-                .filter(AiSingerProperties.EmotionConfig::isEnabled)
-                .toList();
+        return synthesisCatalog.getEnabledEmotions();
+    }
+    
+    /**
+     * 重新加载合成参数目录
+     */
+    public void refreshCatalog() {
+        synthesisCatalog.refresh();
     }
 }
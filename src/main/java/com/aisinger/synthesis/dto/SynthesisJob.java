@@ -0,0 +1,72 @@
+package com.aisinger.synthesis.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步合成任务DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SynthesisJob {
+    
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_SUCCEEDED = "succeeded";
+    public static final String STATUS_FAILED = "failed";
+    
+    /**
+     * 任务ID
+     */
+    private String jobId;
+    
+    /**
+     * 使用的引擎
+     */
+    private String engine;
+    
+    /**
+     * 任务状态: queued, running, succeeded, failed
+     */
+    private volatile String status;
+    
+    /**
+     * 错误信息（如果失败）
+     */
+    private volatile String errorMessage;
+    
+    /**
+     * 提交时间
+     */
+    private LocalDateTime submittedAt;
+    
+    /**
+     * 开始执行时间
+     */
+    private volatile LocalDateTime startedAt;
+    
+    /**
+     * 完成时间
+     */
+    private volatile LocalDateTime finishedAt;
+    
+    /**
+     * 合成结果（完成后可用）
+     */
+    @JsonIgnore
+    private volatile SynthesisResult result;
+    
+    /**
+     * 是否已结束（成功或失败）
+     */
+    public boolean isFinished() {
+        return STATUS_SUCCEEDED.equals(status) || STATUS_FAILED.equals(status);
+    }
+}
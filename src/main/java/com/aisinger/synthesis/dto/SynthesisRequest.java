@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * 声音合成请求DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SynthesisRequest {
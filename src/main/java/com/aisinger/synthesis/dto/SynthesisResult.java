@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * 声音合成结果DTO
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SynthesisResult {
@@ -1,21 +1,30 @@
 package com.aisinger.synthesis.engine;
 
+import com.aisinger.config.OutboundHttpClients;
 import com.aisinger.entity.LlmConfig;
+import com.aisinger.entity.SynthesisProviderConfig;
 import com.aisinger.repository.LlmConfigRepository;
+import com.aisinger.repository.SynthesisProviderConfigRepository;
 import com.aisinger.synthesis.SynthesisEngine;
 import com.aisinger.synthesis.dto.SynthesisRequest;
 import com.aisinger.synthesis.dto.SynthesisResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -28,10 +37,14 @@ import java.util.*;
 public class OpenAiTtsEngine implements SynthesisEngine {
     
     private final LlmConfigRepository llmConfigRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final SynthesisProviderConfigRepository providerConfigRepository;
+    private final OutboundHttpClients outboundHttpClients;
     
     private static final String TTS_API_URL = "https://api.openai.com/v1/audio/speech";
     
+    // 流式转发缓冲区大小
+    private static final int STREAM_BUFFER_SIZE = 8 * 1024;
+    
     // OpenAI TTS可用的声音
     private static final List<String> AVAILABLE_VOICES = Arrays.asList(
             "alloy", "echo", "fable", "onyx", "nova", "shimmer"
@@ -52,6 +65,27 @@ public class OpenAiTtsEngine implements SynthesisEngine {
     
     @Override
     public SynthesisResult synthesize(SynthesisRequest request) {
+        return synthesizeStream(request, null);
+    }
+    
+    @Override
+    public boolean producesLocalAudio() {
+        return true;
+    }
+    
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+    
+    /**
+     * 流式合成：响应体通过NIO通道直接写入磁盘，同时逐块转发给客户端（relay可为空）
+     * 堆内只保留固定大小的缓冲区，不再持有完整音频
+     */
+    @Override
+    public SynthesisResult synthesizeStream(SynthesisRequest request, OutputStream relay) {
+        String fileName = "tts_" + UUID.randomUUID() + ".mp3";
+        Path outputPath = Paths.get("target/audio").resolve(fileName);
         try {
             // 获取OpenAI配置
             LlmConfig config = llmConfigRepository.findByProvider("openai")
@@ -86,48 +120,86 @@ public class OpenAiTtsEngine implements SynthesisEngine {
             log.info("调用OpenAI TTS: voice={}, speed={}, text_length={}", 
                     voice, speed, request.getLyrics().length());
             
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                    TTS_API_URL,
+            Files.createDirectories(outputPath.getParent());
+            
+            // 共享连接池，地址和超时取提供商配置；非2xx响应由RestTemplate的错误处理器抛出异常
+            Optional<SynthesisProviderConfig> providerConfig = providerConfigRepository.findByProvider(getEngineName());
+            String apiUrl = providerConfig.map(SynthesisProviderConfig::getApiUrl)
+                    .filter(url -> !url.isBlank())
+                    .orElse(TTS_API_URL);
+            Integer timeoutSeconds = providerConfig.map(SynthesisProviderConfig::getTimeoutSeconds).orElse(null);
+            RestTemplate restTemplate = outboundHttpClients.restTemplate(getEngineName(), timeoutSeconds);
+            Long bytesWritten = restTemplate.execute(
+                    apiUrl,
                     HttpMethod.POST,
-                    entity,
-                    byte[].class
+                    restTemplate.httpEntityCallback(entity),
+                    response -> pipe(response.getBody(), outputPath, relay)
             );
             
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                // 保存音频文件
-                String fileName = "tts_" + System.currentTimeMillis() + ".mp3";
-                Path outputDir = Paths.get("target/audio");
-                Files.createDirectories(outputDir);
-                Path outputPath = outputDir.resolve(fileName);
-                Files.write(outputPath, response.getBody());
-                
-                log.info("OpenAI TTS合成成功: {}", outputPath);
-                
-                return SynthesisResult.builder()
-                        .success(true)
-                        .audioUrl("/audio/" + fileName)
-                        .audioPath(outputPath.toString())
-                        .duration(estimateDuration(request.getLyrics(), speed))
-                        .format("mp3")
-                        .sampleRate(24000)
-                        .message("合成成功")
-                        .metadata(Map.of(
-                                "voice", voice,
-                                "speed", speed,
-                                "model", model,
-                                "engine", "openai-tts"
-                        ))
-                        .build();
-            } else {
-                return SynthesisResult.error("OpenAI TTS请求失败: " + response.getStatusCode());
+            if (bytesWritten == null || bytesWritten == 0) {
+                Files.deleteIfExists(outputPath);
+                return SynthesisResult.error("OpenAI TTS返回空音频");
             }
             
+            log.info("OpenAI TTS合成成功: {} ({} bytes)", outputPath, bytesWritten);
+            
+            return SynthesisResult.builder()
+                    .success(true)
+                    .audioUrl("/audio/" + fileName)
+                    .audioPath(outputPath.toString())
+                    .duration(estimateDuration(request.getLyrics(), speed))
+                    .format("mp3")
+                    .sampleRate(24000)
+                    .message("合成成功")
+                    .metadata(Map.of(
+                            "voice", voice,
+                            "speed", speed,
+                            "model", model,
+                            "engine", "openai-tts",
+                            "bytes", bytesWritten
+                    ))
+                    .build();
+            
         } catch (Exception e) {
             log.error("OpenAI TTS合成失败", e);
+            // 中途失败时删除已写入的不完整文件
+            deleteQuietly(outputPath);
             return SynthesisResult.error("合成失败: " + e.getMessage());
         }
     }
     
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除不完整的音频文件失败: {}", path);
+        }
+    }
+    
+    /**
+     * 将响应流写入文件，并可选地同步转发给客户端
+     */
+    private long pipe(InputStream body, Path outputPath, OutputStream relay) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        long total = 0;
+        try (ReadableByteChannel in = Channels.newChannel(body);
+             FileChannel out = FileChannel.open(outputPath,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                if (relay != null) {
+                    relay.write(buffer.array(), buffer.position(), buffer.remaining());
+                    relay.flush();
+                }
+                while (buffer.hasRemaining()) {
+                    total += out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+    
     /**
      * 根据配置参数选择合适的声音
      */
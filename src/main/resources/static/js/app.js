@@ -525,30 +525,35 @@ async function wizardGenerateLyrics() {
         return;
     }
     
+    const request = {
+        theme,
+        mood: document.getElementById('wizard-mood').value,
+        style: document.getElementById('wizard-style').value,
+        keywords: document.getElementById('wizard-keywords').value,
+        language: '中文',
+        hasChorus: true
+    };
+    
     showLoading(true, 'AI正在创作歌词...');
     
     try {
-        const response = await fetch(`${API_BASE}/songs/generate-lyrics`, {
+        const response = await fetch(`${API_BASE}/songs/generate-lyrics/stream`, {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
-            body: JSON.stringify({
-                theme,
-                mood: document.getElementById('wizard-mood').value,
-                style: document.getElementById('wizard-style').value,
-                keywords: document.getElementById('wizard-keywords').value,
-                language: '中文',
-                hasChorus: true
-            })
+            headers: { 'Content-Type': 'application/json', 'Accept': 'text/event-stream' },
+            body: JSON.stringify(request)
         });
         
-        const data = await response.json();
+        if (!response.ok || !response.body) {
+            throw new Error(`HTTP ${response.status}`);
+        }
         
-        if (data.success && data.data) {
-            state.wizard.generatedLyrics = data.data;
-            displayWizardLyrics(data.data);
+        const result = await readLyricsStream(response.body);
+        if (result) {
+            state.wizard.generatedLyrics = result;
+            displayWizardLyrics(result);
             showToast('歌词生成成功！', 'success');
         } else {
-            showToast(data.message || '生成失败', 'error');
+            showToast('生成失败', 'error');
         }
     } catch (error) {
         console.error('生成失败:', error);
@@ -558,6 +563,75 @@ async function wizardGenerateLyrics() {
     }
 }
 
+// 读取流式歌词SSE：首个Token到达即显示，段落闭合时逐段展示，返回done事件中的完整结果
+async function readLyricsStream(body) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder('utf-8');
+    const preview = document.getElementById('wizard-lyrics-preview');
+    const titleEl = document.getElementById('wizard-song-title');
+    const contentEl = document.getElementById('wizard-lyrics-content');
+    let buffer = '';
+    let rawText = '';
+    let sections = [];
+    let result = null;
+    
+    const handleEvent = (eventName, data) => {
+        const event = JSON.parse(data);
+        switch (eventName || event.type) {
+            case 'token':
+                if (rawText === '') {
+                    showLoading(false);
+                    preview.classList.remove('hidden');
+                }
+                rawText += event.content;
+                if (sections.length === 0) {
+                    contentEl.textContent = rawText;
+                }
+                break;
+            case 'title':
+                titleEl.textContent = event.content;
+                break;
+            case 'section':
+                sections.push(event.section.content);
+                contentEl.textContent = sections.join('\n\n');
+                break;
+            case 'error':
+                console.warn('LLM流式生成失败，使用备用歌词:', event.content);
+                break;
+            case 'done':
+                result = event.result;
+                break;
+        }
+    };
+    
+    while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        
+        let boundary;
+        while ((boundary = buffer.search(/\r?\n\r?\n/)) >= 0) {
+            const frame = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary).replace(/^\r?\n\r?\n/, '');
+            
+            let eventName = null;
+            const dataLines = [];
+            frame.split(/\r?\n/).forEach(line => {
+                if (line.startsWith('event:')) {
+                    eventName = line.slice(6).trim();
+                } else if (line.startsWith('data:')) {
+                    dataLines.push(line.slice(5).replace(/^ /, ''));
+                }
+            });
+            if (dataLines.length > 0) {
+                handleEvent(eventName, dataLines.join('\n'));
+            }
+        }
+    }
+    
+    return result;
+}
+
 function displayWizardLyrics(lyrics) {
     const preview = document.getElementById('wizard-lyrics-preview');
     preview.classList.remove('hidden');
@@ -658,8 +732,10 @@ function getSegmentTypeName(type) {
     const names = {
         'intro': '前奏',
         'verse': '主歌',
+        'prechorus': '预副歌',
         'chorus': '副歌',
         'bridge': '桥段',
+        'interlude': '间奏',
         'outro': '尾声'
     };
     return names[type] || type || '段落';
@@ -3715,7 +3791,9 @@ async function generateAiSinger(event) {
             body: JSON.stringify({
                 prompt: prompt,
                 referenceArtist: reference || null,
-                language: language
+                language: language,
+                // 预览过相同描述时复用预览结果，不再重复调用LLM
+                reuse: previewedSingerData !== null
             })
         });
         
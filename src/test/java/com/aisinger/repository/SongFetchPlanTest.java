@@ -0,0 +1,144 @@
+package com.aisinger.repository;
+
+import com.aisinger.entity.Emotion;
+import com.aisinger.entity.MusicSegment;
+import com.aisinger.entity.Singer;
+import com.aisinger.entity.SingingConfig;
+import com.aisinger.entity.SingingTechnique;
+import com.aisinger.entity.Song;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 歌曲抓取计划的查询数断言
+ * 用 Hibernate Statistics 统计预编译语句数，详情、列表、渲染三条路径的查询数固定，与歌曲数和片段数无关
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SongFetchPlanTest {
+    
+    private static final int SONG_COUNT = 3;
+    private static final int SEGMENTS_PER_SONG = 4;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private SongRepository songRepository;
+    
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    
+    private Statistics statistics;
+    private Long songId;
+    
+    @BeforeEach
+    void setUp() {
+        Singer singer = entityManager.persist(Singer.builder().name("测试歌手").build());
+        SingingConfig config = entityManager.persist(SingingConfig.builder().name("测试配置").build());
+        List<SingingTechnique> techniques = List.of(
+                entityManager.persist(SingingTechnique.builder().name("颤音").build()),
+                entityManager.persist(SingingTechnique.builder().name("气声").build()));
+        List<Emotion> emotions = List.of(
+                entityManager.persist(Emotion.builder().name("温柔").build()),
+                entityManager.persist(Emotion.builder().name("激昂").build()));
+        
+        for (int i = 0; i < SONG_COUNT; i++) {
+            Song song = Song.builder()
+                    .title("测试歌曲" + i)
+                    .lyrics("第一句\n第二句")
+                    .singer(singer)
+                    .singingConfig(config)
+                    .build();
+            for (int order = 0; order < SEGMENTS_PER_SONG; order++) {
+                song.getSegments().add(MusicSegment.builder()
+                        .song(song)
+                        .segmentOrder(order)
+                        .segmentType("主歌")
+                        .startTime(order * 10.0)
+                        .endTime(order * 10.0 + 10.0)
+                        .lyrics("片段" + order)
+                        .technique(techniques.get(order % techniques.size()))
+                        .emotion(emotions.get(order % emotions.size()))
+                        .build());
+            }
+            songId = entityManager.persist(song).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    /**
+     * 详情：歌曲、歌手、演唱配置、片段及其技巧和情绪一条查询取回
+     */
+    @Test
+    void detailLoadsSongGraphInOneQuery() {
+        Song song = songRepository.findByIdWithSegments(songId);
+        
+        assertThat(song.getSegments()).hasSize(SEGMENTS_PER_SONG);
+        touchSegments(song);
+        assertThat(song.getSinger().getName()).isEqualTo("测试歌手");
+        assertThat(song.getSingingConfig().getName()).isEqualTo("测试配置");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    /**
+     * 渲染：与详情相同的抓取计划，一条查询
+     */
+    @Test
+    void renderLoadsSongGraphInOneQuery() {
+        Song song = songRepository.findByIdForRender(songId);
+        
+        touchSegments(song);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    /**
+     * 列表：歌手和演唱配置随歌曲JOIN取回，序列化不加载片段
+     */
+    @Test
+    void listSerializesWithoutLoadingSegments() throws Exception {
+        List<Song> songs = songRepository.findAll();
+        String json = objectMapper.writeValueAsString(songs);
+        
+        assertThat(songs).hasSize(SONG_COUNT);
+        assertThat(songs).noneMatch(song -> Hibernate.isInitialized(song.getSegments()));
+        assertThat(json).doesNotContain("\"segments\"");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    /**
+     * 列表之后再访问片段：片段、技巧、情绪各按批一条IN查询，而不是每首歌/每个片段一条
+     */
+    @Test
+    void listThenSegmentsUsesBatchFetching() {
+        List<Song> songs = songRepository.findAll();
+        songs.forEach(this::touchSegments);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+    
+    private void touchSegments(Song song) {
+        for (MusicSegment segment : song.getSegments()) {
+            assertThat(segment.getTechnique().getName()).isNotNull();
+            assertThat(segment.getEmotion().getName()).isNotNull();
+        }
+    }
+}